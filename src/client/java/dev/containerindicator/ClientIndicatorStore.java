@@ -0,0 +1,136 @@
+package dev.containerindicator;
+
+import it.unimi.dsi.fastutil.ints.Int2ByteMap;
+import it.unimi.dsi.fastutil.ints.Int2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Client copy of the indicator flags received over the indicator channel
+ * ({@link SyncMode#CHANNEL}), keyed by chunk. With the separate overlay pass it also holds
+ * the flags read from indicator blockstates.
+ *
+ * <p>Section meshing reads this from worker threads, so each chunk's map is replaced rather
+ * than modified once published. Updates mark the affected sections for re-meshing, or just
+ * refresh the overlay pass when that draws the indicators.
+ */
+public final class ClientIndicatorStore {
+
+    private static final Map<Long, Int2ByteOpenHashMap> chunks = new ConcurrentHashMap<>();
+
+    private ClientIndicatorStore() {}
+
+    public static int get(BlockPos pos) {
+        Int2ByteOpenHashMap flags = chunks.get(ChunkPos.asLong(pos));
+        return flags == null ? 0 : flags.get(ChunkIndicatorIndex.pack(pos));
+    }
+
+    public static void acceptChunk(IndicatorChunkPayload payload) {
+        Int2ByteOpenHashMap flags = new Int2ByteOpenHashMap(payload.positions().length);
+        IntOpenHashSet sectionYs = new IntOpenHashSet();
+        for (int i = 0; i < payload.positions().length; i++) {
+            int packed = payload.positions()[i];
+            if (payload.flags()[i] != 0) {
+                flags.put(packed, payload.flags()[i]);
+            }
+            sectionYs.add(SectionPos.blockToSectionCoord(ChunkIndicatorIndex.unpackY(packed)));
+        }
+        publish(payload.chunkPos(), flags);
+
+        int chunkX = ChunkPos.getX(payload.chunkPos());
+        int chunkZ = ChunkPos.getZ(payload.chunkPos());
+        for (int sectionY : sectionYs) {
+            setSectionDirty(chunkX, sectionY, chunkZ);
+        }
+    }
+
+    public static void acceptSection(IndicatorSectionPayload payload) {
+        SectionPos section = SectionPos.of(payload.section());
+        long chunkPos = ChunkPos.asLong(section.x(), section.z());
+        Int2ByteOpenHashMap previous = chunks.get(chunkPos);
+        Int2ByteOpenHashMap flags = previous == null ? new Int2ByteOpenHashMap() : new Int2ByteOpenHashMap(previous);
+        for (int i = 0; i < payload.positions().length; i++) {
+            int packed = ChunkIndicatorIndex.pack(section.relativeToBlockPos(payload.positions()[i]));
+            if (payload.flags()[i] == 0) {
+                flags.remove(packed);
+            } else {
+                flags.put(packed, payload.flags()[i]);
+            }
+        }
+        publish(chunkPos, flags);
+        setSectionDirty(section.x(), section.y(), section.z());
+    }
+
+    /** Replaces a chunk's flags, e.g. as read from its blockstates on load. */
+    public static void replaceChunk(long chunkPos, Int2ByteOpenHashMap flags) {
+        publish(chunkPos, flags);
+    }
+
+    public static void setFlags(BlockPos pos, int value) {
+        long chunkPos = ChunkPos.asLong(pos);
+        int packed = ChunkIndicatorIndex.pack(pos);
+        Int2ByteOpenHashMap previous = chunks.get(chunkPos);
+        if ((previous == null ? 0 : previous.get(packed)) == value) {
+            return;
+        }
+        Int2ByteOpenHashMap flags = previous == null ? new Int2ByteOpenHashMap() : new Int2ByteOpenHashMap(previous);
+        if (value == 0) {
+            flags.remove(packed);
+        } else {
+            flags.put(packed, (byte) value);
+        }
+        publish(chunkPos, flags);
+    }
+
+    public static Set<Long> chunks() {
+        return chunks.keySet();
+    }
+
+    public static void forEach(long chunkPos, ObjIntConsumer<BlockPos> action) {
+        Int2ByteOpenHashMap flags = chunks.get(chunkPos);
+        if (flags == null) {
+            return;
+        }
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int baseX = SectionPos.sectionToBlockCoord(ChunkPos.getX(chunkPos));
+        int baseZ = SectionPos.sectionToBlockCoord(ChunkPos.getZ(chunkPos));
+        for (Int2ByteMap.Entry entry : flags.int2ByteEntrySet()) {
+            int packed = entry.getIntKey();
+            pos.set(baseX + ChunkIndicatorIndex.unpackX(packed), ChunkIndicatorIndex.unpackY(packed),
+                    baseZ + ChunkIndicatorIndex.unpackZ(packed));
+            action.accept(pos, entry.getByteValue());
+        }
+    }
+
+    public static void remove(long chunkPos) {
+        chunks.remove(chunkPos);
+    }
+
+    public static void clear() {
+        chunks.clear();
+    }
+
+    private static void publish(long chunkPos, Int2ByteOpenHashMap flags) {
+        if (flags.isEmpty()) {
+            chunks.remove(chunkPos);
+        } else {
+            chunks.put(chunkPos, flags);
+        }
+        IndicatorOverlayRenderer.onStoreChanged(chunkPos);
+    }
+
+    private static void setSectionDirty(int x, int y, int z) {
+        if (IndicatorOverlayRenderer.isActive()) {
+            return; // the overlay pass draws indicators, the mesh doesn't contain them
+        }
+        Minecraft.getInstance().levelRenderer.setSectionDirty(x, y, z);
+    }
+}
@@ -1,28 +1,57 @@
 package dev.containerindicator;
 
+import dev.containerindicator.core.IndicatorFlags;
+import dev.containerindicator.model.IndicatorOverlays;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.fabricmc.fabric.api.client.rendering.v1.BlockColorRegistry;
+import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderEvents;
 import net.minecraft.client.color.block.BlockTintSource;
-import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.level.block.Block;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class ContainerIndicatorClient implements ClientModInitializer {
     @Override
     public void onInitializeClient() {
-        // Tint sources for indicator (index 0) and fuel (index 1)
-        BlockTintSource indicatorTint = (state) -> ContainerIndicator.getIndicatorColor();
-        BlockTintSource fuelTint = (state) -> ContainerIndicator.getFuelColor();
-        List<BlockTintSource> tintSources = List.of(indicatorTint, fuelTint);
+        // Tint sources for indicator (index 0), fuel (index 1) and each fill tier (from index 2)
+        List<BlockTintSource> tintSources = new ArrayList<>();
+        for (int tint = 0; tint < IndicatorOverlays.FILL_TIER_TINT + IndicatorFlags.FILL_TIERS; tint++) {
+            int tintIndex = tint;
+            tintSources.add((state) -> IndicatorOverlays.tintColor(tintIndex));
+        }
 
-        // Register color providers for any block that has our mixin-injected properties
-        for (Block block : BuiltInRegistries.BLOCK) {
-            boolean hasIndicator = block.defaultBlockState().getProperties().contains(ContainerIndicator.HAS_ITEMS)
-                    || block.defaultBlockState().getProperties().contains(ContainerIndicator.HAS_INPUT);
-            if (hasIndicator) {
-                BlockColorRegistry.register(tintSources, block);
-            }
+        // Register color providers for any block that shows indicators
+        for (Block block : IndicatorStates.indicatorBlocks()) {
+            BlockColorRegistry.register(tintSources, block);
         }
+
+        // Indicator sync channel (syncMode "channel")
+        ClientPlayNetworking.registerGlobalReceiver(IndicatorChunkPayload.TYPE,
+                (payload, context) -> ClientIndicatorStore.acceptChunk(payload));
+        ClientPlayNetworking.registerGlobalReceiver(IndicatorSectionPayload.TYPE,
+                (payload, context) -> ClientIndicatorStore.acceptSection(payload));
+        ClientChunkEvents.CHUNK_UNLOAD.register((level, chunk) -> {
+            ClientIndicatorStore.remove(chunk.getPos().toLong());
+            IndicatorSectionIndex.onChunkUnload(chunk.getPos().toLong());
+            IndicatorOverlayRenderer.onChunkUnload(chunk.getPos().toLong());
+        });
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            ClientIndicatorStore.clear();
+            IndicatorSectionIndex.clear();
+            IndicatorOverlayRenderer.clear();
+        });
+
+        // Separate overlay pass (separateOverlayPass)
+        ClientChunkEvents.CHUNK_LOAD.register((level, chunk) -> IndicatorOverlayRenderer.onChunkLoad(chunk));
+        WorldRenderEvents.AFTER_ENTITIES.register(IndicatorOverlayRenderer::render);
+
+        // Color changes rebuild only sections with indicators, a few per tick
+        IndicatorSectionIndex.onColorsChanged();
+        ClientTickEvents.END_CLIENT_TICK.register(IndicatorSectionIndex::tick);
     }
 }
@@ -113,14 +113,22 @@ public class ContainerIndicatorConfigScreen {
                                 .build())
                         .build())
                 .save(() -> {
+                    // The options already hold the new values; the published table still reflects the old ones
+                    BlockEnablementTable before = BlockEnablementTable.published();
                     ContainerIndicatorConfig.save();
                     Minecraft minecraft = Minecraft.getInstance();
-                    // Force all chunks to re-render for color changes
-                    minecraft.levelRenderer.allChanged();
-                    // Re-evaluate all container blockstates for toggle changes
+                    // Rebuild the sections showing indicators, spread over ticks, if a color changed
+                    IndicatorSectionIndex.onColorsChanged();
+                    // Publish the new table on the server thread and re-evaluate container blockstates
+                    // for block types whose toggle changed
                     MinecraftServer server = minecraft.getSingleplayerServer();
                     if (server != null) {
-                        server.execute(() -> ContainerStateHelper.refreshAllContainers(server));
+                        server.execute(() -> {
+                            BlockEnablementTable after = BlockEnablementTable.rebuild();
+                            if (before != null) {
+                                ConfigReevaluation.schedule(server, before, after);
+                            }
+                        });
                     }
                 })
                 .build()
@@ -0,0 +1,274 @@
+package dev.containerindicator;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import dev.containerindicator.core.IndicatorFlags;
+import dev.containerindicator.model.IndicatorOverlays;
+import dev.containerindicator.model.NeighborCulledOverlayPart;
+import it.unimi.dsi.fastutil.ints.Int2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderContext;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.Sheets;
+import net.minecraft.client.renderer.block.dispatch.BlockStateModelPart;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.client.resources.model.geometry.BakedQuad;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draws indicator overlays in their own pass after entities instead of baking them into the
+ * chunk mesh ({@code separateOverlayPass}). Container contents then never invalidate terrain:
+ * indicator-only block changes skip the section rebuild, and this pass just picks up the new
+ * flags from {@link ClientIndicatorStore}.
+ *
+ * <p>The quads to draw, grouped by section, and the light of the block each quad faces (as
+ * chunk meshing samples it) are resolved per chunk. They are kept until an indicator, a block
+ * or the light in or next to that chunk changes. Each frame only submits the sections the
+ * vanilla renderer found visible, with the current tint. The mode is applied on resource
+ * reload, together with whether models are wrapped. In blockstate mode the flags of chunks
+ * that are already loaded are read at that point; later chunks are read as they load.
+ */
+public final class IndicatorOverlayRenderer {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static volatile boolean active;
+    private static IndicatorOverlays overlays;
+
+    // Resolved draw lists per chunk, rebuilt lazily after invalidation
+    private static final Long2ObjectOpenHashMap<List<SectionDraws>> resolved = new Long2ObjectOpenHashMap<>();
+
+    private IndicatorOverlayRenderer() {}
+
+    // light[i] is the packed light for quads[i]
+    private record DrawEntry(BlockPos pos, BakedQuad[] quads, int[] light) {}
+
+    private record SectionDraws(BlockPos origin, List<DrawEntry> entries) {}
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    /** Called on resource reload with the freshly built overlays. */
+    public static void configure(IndicatorOverlays newOverlays, boolean enabled) {
+        Minecraft.getInstance().execute(() -> {
+            boolean wasActive = active;
+            overlays = newOverlays;
+            active = enabled;
+            resolved.clear();
+            if (enabled != wasActive && SyncMode.usesBlockStates()) {
+                // The store holds blockstate flags only for the pass; fill it from the chunks already loaded
+                ClientIndicatorStore.clear();
+                if (enabled) {
+                    readLoadedChunks();
+                }
+            }
+        });
+    }
+
+    public static void onChunkLoad(LevelChunk chunk) {
+        if (!active || !SyncMode.usesBlockStates()) {
+            return;
+        }
+        readChunk(chunk);
+    }
+
+    private static void readLoadedChunks() {
+        Minecraft minecraft = Minecraft.getInstance();
+        ClientLevel level = minecraft.level;
+        if (level == null || minecraft.player == null) {
+            return;
+        }
+        long center = minecraft.player.chunkPosition().toLong();
+        // The client keeps a few chunks beyond the render distance
+        int radius = minecraft.options.getEffectiveRenderDistance() + 3;
+        for (int x = ChunkPos.getX(center) - radius; x <= ChunkPos.getX(center) + radius; x++) {
+            for (int z = ChunkPos.getZ(center) - radius; z <= ChunkPos.getZ(center) + radius; z++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(x, z);
+                if (chunk != null) {
+                    readChunk(chunk);
+                }
+            }
+        }
+    }
+
+    private static void readChunk(LevelChunk chunk) {
+        // Blockstate mode: read the flags the chunk arrived with
+        Int2ByteOpenHashMap flags = new Int2ByteOpenHashMap();
+        for (BlockEntity be : chunk.getBlockEntities().values()) {
+            int value = IndicatorStates.flagsFromState(be.getBlockState());
+            if (value != 0) {
+                flags.put(ChunkIndicatorIndex.pack(be.getBlockPos()), (byte) value);
+            }
+        }
+        ClientIndicatorStore.replaceChunk(chunk.getPos().toLong(), flags);
+    }
+
+    /**
+     * Tracks a client block change.
+     *
+     * @return true if only indicator properties changed and the section doesn't need re-meshing
+     */
+    public static boolean onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState) {
+        if (!active) {
+            return false;
+        }
+        invalidateAround(pos);
+        if (!SyncMode.usesBlockStates()) {
+            return false;
+        }
+        ClientIndicatorStore.setFlags(pos, IndicatorStates.flagsFromState(newState));
+        return oldState != newState && withoutIndicator(oldState) == withoutIndicator(newState);
+    }
+
+    /** A section was marked for re-meshing, e.g. after a light update; its cached light may be stale. */
+    public static void onSectionDirty(int sectionX, int sectionZ) {
+        if (active) {
+            resolved.remove(ChunkPos.asLong(sectionX, sectionZ));
+        }
+    }
+
+    public static void onStoreChanged(long chunkPos) {
+        resolved.remove(chunkPos);
+    }
+
+    public static void onChunkUnload(long chunkPos) {
+        resolved.remove(chunkPos);
+    }
+
+    public static void clear() {
+        resolved.clear();
+    }
+
+    public static void render(WorldRenderContext context) {
+        Minecraft minecraft = Minecraft.getInstance();
+        ClientLevel level = minecraft.level;
+        if (!active || overlays == null || level == null) {
+            return;
+        }
+
+        Vec3 camera = minecraft.gameRenderer.getMainCamera().getPosition();
+        int cameraChunkX = SectionPos.blockToSectionCoord(camera.x);
+        int cameraChunkZ = SectionPos.blockToSectionCoord(camera.z);
+        int renderDistance = minecraft.options.getEffectiveRenderDistance();
+        float[][] tints = new float[IndicatorOverlays.FILL_TIER_TINT + IndicatorFlags.FILL_TIERS][];
+        for (int tint = 0; tint < tints.length; tint++) {
+            tints[tint] = rgb(IndicatorOverlays.tintColor(tint));
+        }
+
+        PoseStack poseStack = context.matrices();
+        LevelRenderer levelRenderer = minecraft.levelRenderer;
+        VertexConsumer buffer = null;
+        for (long chunkPos : ClientIndicatorStore.chunks()) {
+            if (Math.abs(ChunkPos.getX(chunkPos) - cameraChunkX) > renderDistance
+                    || Math.abs(ChunkPos.getZ(chunkPos) - cameraChunkZ) > renderDistance) {
+                continue;
+            }
+            List<SectionDraws> sections = resolved.get(chunkPos);
+            if (sections == null) {
+                sections = resolve(level, chunkPos);
+                resolved.put(chunkPos, sections);
+            }
+            for (SectionDraws section : sections) {
+                // Frustum and occlusion culling: only sections the terrain pass draws this frame
+                if (!levelRenderer.isSectionCompiledAndVisible(section.origin())) {
+                    continue;
+                }
+                if (buffer == null) {
+                    buffer = context.consumers().getBuffer(Sheets.cutoutBlockSheet());
+                }
+                for (DrawEntry entry : section.entries()) {
+                    BlockPos pos = entry.pos();
+                    BakedQuad[] quads = entry.quads();
+                    poseStack.pushPose();
+                    poseStack.translate(pos.getX() - camera.x, pos.getY() - camera.y, pos.getZ() - camera.z);
+                    for (int i = 0; i < quads.length; i++) {
+                        int tint = quads[i].materialInfo().tintIndex();
+                        float[] color = tints[tint >= 0 && tint < tints.length ? tint : 0];
+                        buffer.putBulkData(poseStack.last(), quads[i], color[0], color[1], color[2], 1.0f,
+                                entry.light()[i], OverlayTexture.NO_OVERLAY);
+                    }
+                    poseStack.popPose();
+                }
+            }
+        }
+    }
+
+    private static List<SectionDraws> resolve(ClientLevel level, long chunkPos) {
+        Int2ObjectOpenHashMap<List<DrawEntry>> bySection = new Int2ObjectOpenHashMap<>();
+        ClientIndicatorStore.forEach(chunkPos, (pos, flags) -> {
+            BlockState state = level.getBlockState(pos);
+            List<BakedQuad> quads = new ArrayList<>();
+            for (BlockStateModelPart part : overlays.partsFor(state, flags)) {
+                if (part instanceof NeighborCulledOverlayPart culled) {
+                    part = culled.select(level, pos);
+                }
+                quads.addAll(part.getQuads(null));
+                for (Direction direction : DIRECTIONS) {
+                    List<BakedQuad> culledQuads = part.getQuads(direction);
+                    if (!culledQuads.isEmpty() && !level.getBlockState(pos.relative(direction)).isSolidRender()) {
+                        quads.addAll(culledQuads);
+                    }
+                }
+            }
+            if (!quads.isEmpty()) {
+                // Light the quad from the block it faces; inside an opaque container it would be 0
+                int[] light = new int[quads.size()];
+                for (int i = 0; i < light.length; i++) {
+                    light[i] = LevelRenderer.getLightColor(level, pos.relative(quads.get(i).direction()));
+                }
+                bySection.computeIfAbsent(SectionPos.blockToSectionCoord(pos.getY()), y -> new ArrayList<>())
+                        .add(new DrawEntry(pos.immutable(), quads.toArray(BakedQuad[]::new), light));
+            }
+        });
+        List<SectionDraws> sections = new ArrayList<>(bySection.size());
+        for (Int2ObjectMap.Entry<List<DrawEntry>> entry : bySection.int2ObjectEntrySet()) {
+            sections.add(new SectionDraws(SectionPos.of(ChunkPos.getX(chunkPos), entry.getIntKey(),
+                    ChunkPos.getZ(chunkPos)).origin(), entry.getValue()));
+        }
+        return sections;
+    }
+
+    // A neighbour change can cull or uncover strips of overlays in the adjacent chunk too
+    private static void invalidateAround(BlockPos pos) {
+        resolved.remove(ChunkPos.asLong(pos));
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            BlockPos neighbour = pos.relative(direction);
+            resolved.remove(ChunkPos.asLong(neighbour));
+        }
+    }
+
+    private static BlockState withoutIndicator(BlockState state) {
+        if (state.hasProperty(ContainerIndicator.HAS_ITEMS)) {
+            state = state.setValue(ContainerIndicator.HAS_ITEMS, false);
+        }
+        if (state.hasProperty(ContainerIndicator.HAS_INPUT)) {
+            state = state.setValue(ContainerIndicator.HAS_INPUT, false);
+        }
+        if (state.hasProperty(ContainerIndicator.HAS_FUEL)) {
+            state = state.setValue(ContainerIndicator.HAS_FUEL, false);
+        }
+        if (state.hasProperty(ContainerIndicator.FILL_LEVEL)) {
+            state = state.setValue(ContainerIndicator.FILL_LEVEL, 0);
+        }
+        return state;
+    }
+
+    private static float[] rgb(int color) {
+        return new float[] {((color >> 16) & 0xFF) / 255f, ((color >> 8) & 0xFF) / 255f, (color & 0xFF) / 255f};
+    }
+}
@@ -0,0 +1,114 @@
+package dev.containerindicator;
+
+import dev.containerindicator.core.IndicatorFlags;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Client index of the chunk sections that were meshed with an indicator overlay, so a color
+ * change only rebuilds those sections instead of every section in render distance.
+ *
+ * <p>Sections are recorded from the meshing threads as overlays are emitted. An entry may
+ * outlive its overlay until the chunk unloads, which only costs an extra rebuild. Rebuilds
+ * after a color change are spread over client ticks, nearest sections first.
+ */
+public final class IndicatorSectionIndex {
+
+    // Chunk position -> section Y coordinates with overlays
+    private static final Map<Long, Set<Integer>> sections = new ConcurrentHashMap<>();
+
+    private static final LongArrayList pendingRebuilds = new LongArrayList();
+    private static int pendingIndex;
+    private static int renderedIndicatorColor = -1;
+    private static int renderedFuelColor = -1;
+    private static int[] renderedFillTierColors = new int[0];
+
+    private IndicatorSectionIndex() {}
+
+    public static void record(BlockPos pos) {
+        sections.computeIfAbsent(ChunkPos.asLong(pos), k -> ConcurrentHashMap.newKeySet())
+                .add(SectionPos.blockToSectionCoord(pos.getY()));
+    }
+
+    public static void onChunkUnload(long chunkPos) {
+        sections.remove(chunkPos);
+    }
+
+    public static void clear() {
+        sections.clear();
+        pendingRebuilds.clear();
+        pendingIndex = 0;
+    }
+
+    /**
+     * Queues a rebuild of every indexed section if the indicator colors differ from the ones
+     * the current meshes were built with.
+     */
+    public static void onColorsChanged() {
+        int indicatorColor = ContainerIndicator.getIndicatorColor();
+        int fuelColor = ContainerIndicator.getFuelColor();
+        int[] fillTierColors = new int[IndicatorFlags.FILL_TIERS];
+        for (int tier = 0; tier < fillTierColors.length; tier++) {
+            fillTierColors[tier] = ContainerIndicator.getFillTierColor(tier);
+        }
+        if (indicatorColor == renderedIndicatorColor && fuelColor == renderedFuelColor
+                && Arrays.equals(fillTierColors, renderedFillTierColors)) {
+            return;
+        }
+        renderedIndicatorColor = indicatorColor;
+        renderedFuelColor = fuelColor;
+        renderedFillTierColors = fillTierColors;
+
+        pendingRebuilds.clear();
+        pendingIndex = 0;
+        for (Map.Entry<Long, Set<Integer>> entry : sections.entrySet()) {
+            int chunkX = ChunkPos.getX(entry.getKey());
+            int chunkZ = ChunkPos.getZ(entry.getKey());
+            for (int sectionY : entry.getValue()) {
+                pendingRebuilds.add(SectionPos.asLong(chunkX, sectionY, chunkZ));
+            }
+        }
+
+        Minecraft minecraft = Minecraft.getInstance();
+        if (minecraft.player != null) {
+            SectionPos center = SectionPos.of(minecraft.player.blockPosition());
+            pendingRebuilds.sort((long a, long b) -> Long.compare(distanceSq(center, a), distanceSq(center, b)));
+        }
+    }
+
+    public static void tick(Minecraft minecraft) {
+        if (pendingIndex >= pendingRebuilds.size()) {
+            return;
+        }
+        if (minecraft.level == null) {
+            pendingRebuilds.clear();
+            pendingIndex = 0;
+            return;
+        }
+        int budget = Math.max(1, ContainerIndicatorConfig.instance().recolorSectionsPerTick);
+        int end = Math.min(pendingRebuilds.size(), pendingIndex + budget);
+        for (; pendingIndex < end; pendingIndex++) {
+            long section = pendingRebuilds.getLong(pendingIndex);
+            minecraft.levelRenderer.setSectionDirty(SectionPos.x(section), SectionPos.y(section), SectionPos.z(section));
+        }
+        if (pendingIndex >= pendingRebuilds.size()) {
+            pendingRebuilds.clear();
+            pendingIndex = 0;
+        }
+    }
+
+    private static long distanceSq(SectionPos center, long section) {
+        long dx = SectionPos.x(section) - center.x();
+        long dy = SectionPos.y(section) - center.y();
+        long dz = SectionPos.z(section) - center.z();
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
@@ -0,0 +1,30 @@
+package dev.containerindicator.mixin.client;
+
+import dev.containerindicator.IndicatorOverlayRenderer;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(LevelRenderer.class)
+public class LevelRendererMixin {
+
+    @Inject(method = "blockChanged", at = @At("HEAD"), cancellable = true)
+    private void containerindicator$skipIndicatorOnlyChange(BlockGetter level, BlockPos pos, BlockState oldState,
+                                                           BlockState newState, int flags, CallbackInfo ci) {
+        // With the separate overlay pass, an indicator flip doesn't change the section mesh
+        if (IndicatorOverlayRenderer.onBlockChanged(pos, oldState, newState)) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "setSectionDirty(III)V", at = @At("HEAD"))
+    private void containerindicator$onSectionDirty(int sectionX, int sectionY, int sectionZ, CallbackInfo ci) {
+        // Light updates re-mesh sections through here; the overlay pass caches light per chunk
+        IndicatorOverlayRenderer.onSectionDirty(sectionX, sectionZ);
+    }
+}
@@ -0,0 +1,68 @@
+package dev.containerindicator.model;
+
+import dev.containerindicator.ClientIndicatorStore;
+import dev.containerindicator.IndicatorSectionIndex;
+import dev.containerindicator.core.IndicatorFlags;
+import net.fabricmc.fabric.api.renderer.v1.mesh.QuadEmitter;
+import net.minecraft.client.renderer.block.dispatch.BlockStateModel;
+import net.minecraft.client.renderer.block.dispatch.BlockStateModelPart;
+import net.minecraft.client.resources.model.sprite.Material;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Wraps a container block's model in channel sync mode: the overlay is chosen per position
+ * from {@link ClientIndicatorStore} while the section is meshed. Outside the world (items,
+ * falling blocks) only the original model is drawn.
+ */
+public class ChannelIndicatorModel implements BlockStateModel {
+
+    private final BlockStateModel original;
+    // Overlay parts by indicator flags (IndicatorFlags.FLAG_BITS bits)
+    private final List<List<BlockStateModelPart>> partsByFlags;
+
+    public ChannelIndicatorModel(BlockStateModel original, List<List<BlockStateModelPart>> partsByFlags) {
+        this.original = original;
+        this.partsByFlags = partsByFlags;
+    }
+
+    List<List<BlockStateModelPart>> partsByFlags() {
+        return partsByFlags;
+    }
+
+    @Override
+    public void emitQuads(QuadEmitter emitter, BlockAndTintGetter blockView, BlockPos pos, BlockState state,
+                          RandomSource random, Predicate<Direction> cullTest) {
+        original.emitQuads(emitter, blockView, pos, state, random, cullTest);
+        int flags = ClientIndicatorStore.get(pos);
+        List<BlockStateModelPart> parts = partsByFlags.get(flags & IndicatorFlags.FLAG_MASK);
+        if (parts.isEmpty()) {
+            return;
+        }
+        IndicatorSectionIndex.record(pos);
+        for (BlockStateModelPart part : parts) {
+            NeighborCulledOverlayPart.emit(part, emitter, blockView, pos, cullTest);
+        }
+    }
+
+    @Override
+    public void collectParts(RandomSource random, List<BlockStateModelPart> parts) {
+        original.collectParts(random, parts);
+    }
+
+    @Override
+    public Material.Baked particleMaterial() {
+        return original.particleMaterial();
+    }
+
+    @Override
+    public int materialFlags() {
+        return original.materialFlags();
+    }
+}
@@ -1,11 +1,18 @@
 package dev.containerindicator.model;
 
+import dev.containerindicator.IndicatorSectionIndex;
+import net.fabricmc.fabric.api.renderer.v1.mesh.QuadEmitter;
 import net.minecraft.client.renderer.block.dispatch.BlockStateModel;
 import net.minecraft.client.renderer.block.dispatch.BlockStateModelPart;
 import net.minecraft.client.resources.model.sprite.Material;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public class CompositeBlockStateModel implements BlockStateModel {
 
@@ -17,6 +24,20 @@ public class CompositeBlockStateModel implements BlockStateModel {
         this.overlayParts = overlayParts;
     }
 
+    List<BlockStateModelPart> overlayParts() {
+        return overlayParts;
+    }
+
+    @Override
+    public void emitQuads(QuadEmitter emitter, BlockAndTintGetter blockView, BlockPos pos, BlockState state,
+                          RandomSource random, Predicate<Direction> cullTest) {
+        original.emitQuads(emitter, blockView, pos, state, random, cullTest);
+        IndicatorSectionIndex.record(pos);
+        for (BlockStateModelPart part : overlayParts) {
+            NeighborCulledOverlayPart.emit(part, emitter, blockView, pos, cullTest);
+        }
+    }
+
     @Override
     public void collectParts(RandomSource random, List<BlockStateModelPart> parts) {
         original.collectParts(random, parts);
@@ -0,0 +1,184 @@
+package dev.containerindicator.model;
+
+import dev.containerindicator.ContainerIndicator;
+import dev.containerindicator.FillLevels;
+import dev.containerindicator.IndicatorStates;
+import dev.containerindicator.core.IndicatorFlags;
+import net.minecraft.client.renderer.block.dispatch.BlockStateModelPart;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.model.geometry.BakedQuad;
+import net.minecraft.client.resources.model.sprite.Material;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.world.level.block.AbstractFurnaceBlock;
+import net.minecraft.world.level.block.BarrelBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.ChestBlock;
+import net.minecraft.world.level.block.CrafterBlock;
+import net.minecraft.world.level.block.DecoratedPotBlock;
+import net.minecraft.world.level.block.DispenserBlock;
+import net.minecraft.world.level.block.HopperBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.ChestType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The overlay parts built from the indicator sprite, and which of them a block shows for a
+ * given set of indicator flags.
+ *
+ * <p>Every part list handed out is one of a few shared instances, so wrapped models can be
+ * interned by (original model, part list) instead of allocated per blockstate.
+ *
+ * <p>With {@code fillLevelTiers} on, item containers pick their overlay from one set per fill
+ * tier; the sets share geometry and differ only in tint index.
+ */
+public final class IndicatorOverlays {
+
+    // Tint index of the emptiest fill tier; the others follow it
+    public static final int FILL_TIER_TINT = 2;
+
+    private final List<BlockStateModelPart> bottom;
+    private final List<BlockStateModelPart> standardAndBottom;
+    private final ItemParts items;
+    // Item overlays per fill tier, or null without fillLevelTiers
+    private final ItemParts[] tiers;
+
+    private final Map<List<List<BlockStateModelPart>>, List<List<BlockStateModelPart>>> flagTables = new HashMap<>();
+
+    /** The "has items" overlays of each block shape, all drawn with one tint. */
+    private record ItemParts(List<BlockStateModelPart> standard, List<BlockStateModelPart> pot,
+                             List<BlockStateModelPart> chest, List<BlockStateModelPart> doubleChestNorth,
+                             List<BlockStateModelPart> doubleChestEast, List<BlockStateModelPart> doubleChestSouth,
+                             List<BlockStateModelPart> doubleChestWest) {}
+
+    public IndicatorOverlays(TextureAtlasSprite sprite, ResourceManager resourceManager) {
+        Material.Baked bakedMaterial = new Material.Baked(sprite, false);
+
+        // Geometry comes from the overlay model JSONs; quads are reused across reloads when possible
+        OverlayModel doubleChestModel = OverlayModel.load(resourceManager, "indicator_overlay_chest_double");
+        List<BakedQuad> standardQuads = quads(resourceManager, "indicator_overlay", sprite);
+        List<BakedQuad> bottomQuads = quads(resourceManager, "indicator_overlay_bottom", sprite);
+        List<BakedQuad> potQuads = quads(resourceManager, "indicator_overlay_pot", sprite);
+        List<BakedQuad> chestQuads = quads(resourceManager, "indicator_overlay_chest", sprite);
+        // Pre-build double chest overlay rotations per facing
+        List<List<BakedQuad>> doubleChestQuads = List.of(
+                OverlayQuadCache.get(doubleChestModel, 0, sprite),
+                OverlayQuadCache.get(doubleChestModel, 90, sprite),
+                OverlayQuadCache.get(doubleChestModel, 180, sprite),
+                OverlayQuadCache.get(doubleChestModel, 270, sprite));
+
+        // Build overlay parts once, wrapped in the lists handed out by partsFor
+
+        BlockStateModelPart standardPart = new OverlayBlockModelPart(standardQuads, bakedMaterial, true);
+        BlockStateModelPart bottomPart = new OverlayBlockModelPart(bottomQuads, bakedMaterial, true);
+        bottom = List.of(bottomPart);
+        standardAndBottom = List.of(standardPart, bottomPart);
+        items = itemParts(List.of(standardPart), potQuads, chestQuads, doubleChestQuads, bakedMaterial);
+
+        if (FillLevels.enabled()) {
+            tiers = new ItemParts[IndicatorFlags.FILL_TIERS];
+            for (int tier = 0; tier < tiers.length; tier++) {
+                int tint = FILL_TIER_TINT + tier;
+                List<List<BakedQuad>> retintedDoubleChest = new ArrayList<>(doubleChestQuads.size());
+                for (List<BakedQuad> quads : doubleChestQuads) {
+                    retintedDoubleChest.add(OverlayQuadFactory.retint(quads, sprite, tint));
+                }
+                tiers[tier] = itemParts(
+                        List.of(new OverlayBlockModelPart(OverlayQuadFactory.retint(standardQuads, sprite, tint), bakedMaterial, true)),
+                        OverlayQuadFactory.retint(potQuads, sprite, tint),
+                        OverlayQuadFactory.retint(chestQuads, sprite, tint),
+                        retintedDoubleChest, bakedMaterial);
+            }
+        } else {
+            tiers = null;
+        }
+    }
+
+    private static ItemParts itemParts(List<BlockStateModelPart> standard, List<BakedQuad> potQuads,
+                                       List<BakedQuad> chestQuads, List<List<BakedQuad>> doubleChestQuads,
+                                       Material.Baked bakedMaterial) {
+        // Inset overlays can't use cullfaces; their side strips are culled against neighbours instead
+        return new ItemParts(standard,
+                List.of(new NeighborCulledOverlayPart(potQuads, bakedMaterial)),
+                List.of(new NeighborCulledOverlayPart(chestQuads, bakedMaterial)),
+                List.of(new NeighborCulledOverlayPart(doubleChestQuads.get(0), bakedMaterial)),
+                List.of(new NeighborCulledOverlayPart(doubleChestQuads.get(1), bakedMaterial)),
+                List.of(new NeighborCulledOverlayPart(doubleChestQuads.get(2), bakedMaterial)),
+                List.of(new NeighborCulledOverlayPart(doubleChestQuads.get(3), bakedMaterial)));
+    }
+
+    private static List<BakedQuad> quads(ResourceManager resourceManager, String name, TextureAtlasSprite sprite) {
+        return OverlayQuadCache.get(OverlayModel.load(resourceManager, name), 0, sprite);
+    }
+
+    /**
+     * Color for an overlay quad's tint index: indicator (0), fuel (1), then one per fill tier.
+     */
+    public static int tintColor(int tintIndex) {
+        if (tintIndex == 1) {
+            return ContainerIndicator.getFuelColor();
+        } else if (tintIndex >= FILL_TIER_TINT) {
+            return ContainerIndicator.getFillTierColor(tintIndex - FILL_TIER_TINT);
+        }
+        return ContainerIndicator.getIndicatorColor();
+    }
+
+    /**
+     * Overlay parts to draw on top of {@code state}'s model for the given
+     * {@link IndicatorStates} flags; empty if nothing is shown.
+     */
+    public List<BlockStateModelPart> partsFor(BlockState state, int flags) {
+        Block block = state.getBlock();
+        boolean hasItems = (flags & IndicatorStates.HAS_ITEMS) != 0;
+        ItemParts itemParts = tiers != null ? tiers[IndicatorFlags.fillTier(flags)] : items;
+
+        if (block instanceof BarrelBlock || block instanceof CrafterBlock
+                || block instanceof HopperBlock || block instanceof DispenserBlock) {
+            return hasItems ? itemParts.standard() : List.of();
+        } else if (block instanceof DecoratedPotBlock) {
+            return hasItems ? itemParts.pot() : List.of();
+        } else if (block instanceof AbstractFurnaceBlock) {
+            boolean hasInput = (flags & IndicatorStates.HAS_INPUT) != 0;
+            boolean hasFuel = (flags & IndicatorStates.HAS_FUEL) != 0;
+            if (hasInput && hasFuel) {
+                return standardAndBottom;
+            } else if (hasInput) {
+                return items.standard();
+            } else if (hasFuel) {
+                return bottom;
+            }
+        } else if (block instanceof ChestBlock) {
+            if (!hasItems) {
+                return List.of();
+            }
+            ChestType type = state.getValue(ChestBlock.TYPE);
+            if (type == ChestType.SINGLE) {
+                return itemParts.chest();
+            } else if (type == ChestType.LEFT) {
+                return switch (state.getValue(ChestBlock.FACING)) {
+                    case EAST -> itemParts.doubleChestEast();
+                    case SOUTH -> itemParts.doubleChestSouth();
+                    case WEST -> itemParts.doubleChestWest();
+                    default -> itemParts.doubleChestNorth();
+                };
+            }
+            // RIGHT type: no overlay (left half handles the full double overlay)
+        }
+        return List.of();
+    }
+
+    /**
+     * Part lists for every flag combination, indexed by flags. Blockstates that show the
+     * same overlays share one table.
+     */
+    public List<List<BlockStateModelPart>> partsByFlags(BlockState state) {
+        List<List<BlockStateModelPart>> table = new ArrayList<>(1 << IndicatorFlags.FLAG_BITS);
+        for (int flags = 0; flags < 1 << IndicatorFlags.FLAG_BITS; flags++) {
+            table.add(partsFor(state, flags));
+        }
+        return flagTables.computeIfAbsent(List.copyOf(table), t -> t);
+    }
+}
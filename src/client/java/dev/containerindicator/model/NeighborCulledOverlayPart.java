@@ -0,0 +1,149 @@
+package dev.containerindicator.model;
+
+import net.fabricmc.fabric.api.renderer.v1.mesh.QuadEmitter;
+import net.minecraft.client.renderer.block.dispatch.BlockStateModelPart;
+import net.minecraft.client.resources.model.geometry.BakedQuad;
+import net.minecraft.client.resources.model.sprite.Material;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.Vec3i;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.BlockAndTintGetter;
+import org.joml.Vector3fc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Overlay part for inset overlays (chests, pots) whose side strips can't use a cullface.
+ * A side strip is dropped when every block it faces is a full opaque cube, which vanilla
+ * cullfaces can't express for quads inset from the block edge or spanning two blocks.
+ *
+ * <p>All 2^n combinations of culled side strips are built up front, so meshing only looks up
+ * the neighbours and picks a variant. Outside the world the full overlay is used.
+ */
+public class NeighborCulledOverlayPart implements BlockStateModelPart {
+
+    private static final float EPSILON = 1.0e-4f;
+
+    // Variant by bit mask of culled side strips; variants[0] shows everything
+    private final BlockStateModelPart[] variants;
+    // Per side strip: the neighbour offsets that must all be solid to cull it
+    private final Vec3i[][] sideNeighbours;
+
+    public NeighborCulledOverlayPart(List<BakedQuad> quads, Material.Baked particleMaterial) {
+        List<BakedQuad> fixed = new ArrayList<>();
+        List<BakedQuad> sides = new ArrayList<>();
+        for (BakedQuad quad : quads) {
+            if (quad.direction().getAxis().isHorizontal()) {
+                sides.add(quad);
+            } else {
+                fixed.add(quad);
+            }
+        }
+
+        sideNeighbours = new Vec3i[sides.size()][];
+        for (int i = 0; i < sides.size(); i++) {
+            sideNeighbours[i] = neighboursFacing(sides.get(i));
+        }
+
+        variants = new BlockStateModelPart[1 << sides.size()];
+        for (int mask = 0; mask < variants.length; mask++) {
+            List<BakedQuad> visible = new ArrayList<>(fixed);
+            for (int i = 0; i < sides.size(); i++) {
+                if ((mask & (1 << i)) == 0) {
+                    visible.add(sides.get(i));
+                }
+            }
+            variants[mask] = new OverlayBlockModelPart(visible, particleMaterial, false);
+        }
+    }
+
+    /**
+     * Emits {@code part}, culling side strips against the neighbours of {@code pos} if it is
+     * a neighbour-culled overlay.
+     */
+    public static void emit(BlockStateModelPart part, QuadEmitter emitter, BlockAndTintGetter level, BlockPos pos,
+                            Predicate<Direction> cullTest) {
+        if (part instanceof NeighborCulledOverlayPart culled) {
+            part = culled.select(level, pos);
+        }
+        part.emitQuads(emitter, cullTest);
+    }
+
+    public BlockStateModelPart select(BlockAndTintGetter level, BlockPos pos) {
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int mask = 0;
+        for (int i = 0; i < sideNeighbours.length; i++) {
+            boolean hidden = true;
+            for (Vec3i offset : sideNeighbours[i]) {
+                cursor.setWithOffset(pos, offset);
+                if (!level.getBlockState(cursor).isSolidRender()) {
+                    hidden = false;
+                    break;
+                }
+            }
+            if (hidden) {
+                mask |= 1 << i;
+            }
+        }
+        return variants[mask];
+    }
+
+    BlockStateModelPart[] variants() {
+        return variants;
+    }
+
+    @Override
+    public List<BakedQuad> getQuads(Direction direction) {
+        return variants[0].getQuads(direction);
+    }
+
+    @Override
+    public boolean useAmbientOcclusion() {
+        return false;
+    }
+
+    @Override
+    public Material.Baked particleMaterial() {
+        return variants[0].particleMaterial();
+    }
+
+    @Override
+    public int materialFlags() {
+        return 0;
+    }
+
+    // Blocks the strip lies against (it may span several, e.g. a double chest side), offset by its facing
+    private static Vec3i[] neighboursFacing(BakedQuad quad) {
+        Direction facing = quad.direction();
+        Vector3fc[] corners = {quad.position0(), quad.position1(), quad.position2(), quad.position3()};
+        int[][] ranges = new int[3][];
+        for (Direction.Axis axis : Direction.Axis.values()) {
+            float min = Float.MAX_VALUE;
+            float max = -Float.MAX_VALUE;
+            for (Vector3fc corner : corners) {
+                float value = (float) axis.choose(corner.x(), corner.y(), corner.z());
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (axis == facing.getAxis()) {
+                int cell = Mth.floor((min + max) / 2);
+                ranges[axis.ordinal()] = new int[] {cell, cell};
+            } else {
+                ranges[axis.ordinal()] = new int[] {Mth.floor(min + EPSILON), Mth.floor(max - EPSILON)};
+            }
+        }
+
+        List<Vec3i> cells = new ArrayList<>();
+        for (int x = ranges[0][0]; x <= ranges[0][1]; x++) {
+            for (int y = ranges[1][0]; y <= ranges[1][1]; y++) {
+                for (int z = ranges[2][0]; z <= ranges[2][1]; z++) {
+                    cells.add(new Vec3i(x, y, z).relative(facing));
+                }
+            }
+        }
+        return cells.toArray(Vec3i[]::new);
+    }
+}
@@ -6,30 +6,38 @@ import net.minecraft.client.resources.model.sprite.Material;
 import net.minecraft.core.Direction;
 
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 
 public class OverlayBlockModelPart implements BlockStateModelPart {
 
-    private final Map<Direction, List<BakedQuad>> culledQuads;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // Indexed by Direction.ordinal(); directions without quads share the empty list
+    private final List<BakedQuad>[] culledQuads;
     private final List<BakedQuad> unculledQuads;
     private final Material.Baked particleMaterial;
 
+    @SuppressWarnings("unchecked")
     public OverlayBlockModelPart(List<BakedQuad> quads, Material.Baked particleMaterial, boolean useCullface) {
         this.particleMaterial = particleMaterial;
-        this.culledQuads = new EnumMap<>(Direction.class);
-        this.unculledQuads = new ArrayList<>();
+        this.culledQuads = new List[DIRECTIONS.length];
 
         if (useCullface) {
-            for (Direction dir : Direction.values()) {
-                culledQuads.put(dir, new ArrayList<>());
-            }
-            for (BakedQuad quad : quads) {
-                culledQuads.get(quad.direction()).add(quad);
+            for (Direction dir : DIRECTIONS) {
+                List<BakedQuad> matching = new ArrayList<>();
+                for (BakedQuad quad : quads) {
+                    if (quad.direction() == dir) {
+                        matching.add(quad);
+                    }
+                }
+                culledQuads[dir.ordinal()] = List.copyOf(matching);
             }
+            this.unculledQuads = List.of();
         } else {
-            unculledQuads.addAll(quads);
+            for (Direction dir : DIRECTIONS) {
+                culledQuads[dir.ordinal()] = List.of();
+            }
+            this.unculledQuads = List.copyOf(quads);
         }
     }
 
@@ -38,8 +46,7 @@ public class OverlayBlockModelPart implements BlockStateModelPart {
         if (direction == null) {
             return unculledQuads;
         }
-        List<BakedQuad> list = culledQuads.get(direction);
-        return list != null ? list : List.of();
+        return culledQuads[direction.ordinal()];
     }
 
     @Override
@@ -0,0 +1,112 @@
+package dev.containerindicator.model;
+
+import dev.containerindicator.ContainerIndicator;
+import net.minecraft.client.renderer.block.dispatch.BlockStateModel;
+import net.minecraft.client.renderer.block.dispatch.BlockStateModelPart;
+import net.minecraft.client.resources.model.geometry.BakedQuad;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the heap retained by the overlay models installed in a model set, and logs it
+ * next to the figure from the previous resource reload.
+ *
+ * <p>Counts each distinct object reachable from the overlay wrappers once and sums
+ * approximate shallow sizes for a 64-bit JVM with compressed references. The original
+ * models being wrapped are not counted.
+ */
+public final class OverlayMemoryReport {
+
+    // Approximate shallow sizes in bytes (12-byte header, 4-byte references, 8-byte alignment)
+    private static final int WRAPPER_BYTES = 24;
+    private static final int PART_BYTES = 24 + 40;        // part + its per-direction array
+    private static final int QUAD_BYTES = 72 + 4 * 24;    // quad record + four position vectors
+    private static final int MATERIAL_INFO_BYTES = 32;
+    private static final int LIST_HEADER_BYTES = 32;
+    private static final int LIST_ENTRY_BYTES = 4;
+
+    private static long previousBytes = -1;
+
+    private OverlayMemoryReport() {}
+
+    public static void report(Map<BlockState, BlockStateModel> models) {
+        Set<Object> wrappers = identitySet();
+        Set<Object> lists = identitySet();
+        Set<Object> parts = identitySet();
+        Set<Object> quads = identitySet();
+        Set<Object> materialInfos = identitySet();
+        int wrappedStates = 0;
+        long listBytes = 0;
+
+        for (BlockStateModel model : models.values()) {
+            List<List<BlockStateModelPart>> partLists;
+            if (model instanceof CompositeBlockStateModel composite) {
+                partLists = List.of(composite.overlayParts());
+            } else if (model instanceof ChannelIndicatorModel channel) {
+                partLists = channel.partsByFlags();
+                if (lists.add(partLists)) {
+                    listBytes += LIST_HEADER_BYTES + (long) LIST_ENTRY_BYTES * partLists.size();
+                }
+            } else {
+                continue;
+            }
+            wrappedStates++;
+            if (!wrappers.add(model)) {
+                continue;
+            }
+            for (List<BlockStateModelPart> partList : partLists) {
+                if (!lists.add(partList)) {
+                    continue;
+                }
+                listBytes += LIST_HEADER_BYTES + (long) LIST_ENTRY_BYTES * partList.size();
+                for (BlockStateModelPart part : partList) {
+                    if (parts.add(part)) {
+                        collectQuads(part, quads, materialInfos);
+                        if (part instanceof NeighborCulledOverlayPart culled) {
+                            for (BlockStateModelPart variant : culled.variants()) {
+                                parts.add(variant);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        long bytes = (long) wrappers.size() * WRAPPER_BYTES
+                + listBytes
+                + (long) parts.size() * PART_BYTES
+                + (long) quads.size() * QUAD_BYTES
+                + (long) materialInfos.size() * MATERIAL_INFO_BYTES;
+
+        ContainerIndicator.LOGGER.info("[Handy Indicator] Overlay models: {} wrappers for {} blockstates, {} part lists, "
+                        + "{} parts, {} quads, {} material infos, ~{} KiB retained (previous reload: {})",
+                wrappers.size(), wrappedStates, lists.size(), parts.size(), quads.size(), materialInfos.size(),
+                bytes / 1024, previousBytes < 0 ? "n/a" : "~" + previousBytes / 1024 + " KiB");
+        previousBytes = bytes;
+    }
+
+    private static void collectQuads(BlockStateModelPart part, Set<Object> quads, Set<Object> materialInfos) {
+        addQuads(part.getQuads(null), quads, materialInfos);
+        for (Direction direction : Direction.values()) {
+            addQuads(part.getQuads(direction), quads, materialInfos);
+        }
+    }
+
+    private static void addQuads(List<BakedQuad> list, Set<Object> quads, Set<Object> materialInfos) {
+        for (BakedQuad quad : list) {
+            if (quads.add(quad)) {
+                materialInfos.add(quad.materialInfo());
+            }
+        }
+    }
+
+    private static Set<Object> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
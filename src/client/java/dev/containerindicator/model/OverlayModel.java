@@ -0,0 +1,95 @@
+package dev.containerindicator.model;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.containerindicator.ContainerIndicator;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import org.joml.Vector3f;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Overlay geometry read from {@code assets/container_indicator/models/block/<name>.json}, so
+ * resource packs can reshape the indicator. Only the parts of the block model format the
+ * overlays use are read: element {@code from}/{@code to} boxes and their faces' direction,
+ * {@code cullface} and {@code tintindex}. Every face maps the whole indicator sprite.
+ *
+ * <p>If a pack's copy can't be read, the copy bundled with the mod is used instead.
+ */
+public record OverlayModel(List<Element> elements) {
+
+    public record Element(Vector3f from, Vector3f to, List<Face> faces) {}
+
+    public record Face(Direction direction, Direction cullface, int tintIndex) {}
+
+    public static OverlayModel load(ResourceManager resourceManager, String name) {
+        Identifier id = Identifier.fromNamespaceAndPath("container_indicator", "models/block/" + name + ".json");
+        Optional<Resource> resource = resourceManager.getResource(id);
+        if (resource.isPresent()) {
+            try (Reader reader = resource.get().openAsReader()) {
+                return parse(JsonParser.parseReader(reader).getAsJsonObject());
+            } catch (IOException | RuntimeException e) {
+                ContainerIndicator.LOGGER.warn("[Handy Indicator] Failed to read overlay model {} from {}, using the built-in one",
+                        id, resource.get().sourcePackId(), e);
+            }
+        }
+        return loadBundled(name);
+    }
+
+    private static OverlayModel loadBundled(String name) {
+        String path = "/assets/container_indicator/models/block/" + name + ".json";
+        try (InputStream in = OverlayModel.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing bundled overlay model " + path);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return parse(JsonParser.parseReader(reader).getAsJsonObject());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read bundled overlay model " + path, e);
+        }
+    }
+
+    static OverlayModel parse(JsonObject json) {
+        List<Element> elements = new ArrayList<>();
+        for (JsonElement entry : json.getAsJsonArray("elements")) {
+            JsonObject element = entry.getAsJsonObject();
+            List<Face> faces = new ArrayList<>();
+            for (Map.Entry<String, JsonElement> face : element.getAsJsonObject("faces").entrySet()) {
+                JsonObject faceJson = face.getValue().getAsJsonObject();
+                Direction direction = direction(face.getKey());
+                Direction cullface = faceJson.has("cullface") ? direction(faceJson.get("cullface").getAsString()) : null;
+                int tintIndex = faceJson.has("tintindex") ? faceJson.get("tintindex").getAsInt() : -1;
+                faces.add(new Face(direction, cullface, tintIndex));
+            }
+            elements.add(new Element(vector(element.getAsJsonArray("from")), vector(element.getAsJsonArray("to")),
+                    List.copyOf(faces)));
+        }
+        return new OverlayModel(List.copyOf(elements));
+    }
+
+    private static Direction direction(String name) {
+        Direction direction = Direction.byName(name);
+        if (direction == null) {
+            throw new IllegalArgumentException("Unknown face direction: " + name);
+        }
+        return direction;
+    }
+
+    private static Vector3f vector(JsonArray array) {
+        return new Vector3f(array.get(0).getAsFloat(), array.get(1).getAsFloat(), array.get(2).getAsFloat());
+    }
+}
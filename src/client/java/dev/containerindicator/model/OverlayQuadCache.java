@@ -0,0 +1,65 @@
+package dev.containerindicator.model;
+
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.model.geometry.BakedQuad;
+import net.minecraft.resources.Identifier;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Baked overlay quads, kept across resource reloads. Entries are keyed by overlay geometry
+ * and Y rotation. Their geometry stays valid while the indicator sprite keeps its name and
+ * atlas UVs; when the sprite moves, the cache starts over. A reload that only replaces the
+ * sprite instance rebinds the cached quads to it, so they never hold on to the old sprite
+ * and its atlas.
+ */
+public final class OverlayQuadCache {
+
+    private record SpriteKey(Identifier name, float u0, float u1, float v0, float v1) {}
+
+    private record Key(OverlayModel model, int rotation) {}
+
+    private static SpriteKey spriteKey;
+    // Sprite instance the cached quads' materials point at
+    private static TextureAtlasSprite boundSprite;
+    private static final Map<Key, List<BakedQuad>> quads = new HashMap<>();
+    private static int hits;
+    private static int misses;
+
+    private OverlayQuadCache() {}
+
+    public static synchronized List<BakedQuad> get(OverlayModel model, int rotation, TextureAtlasSprite sprite) {
+        SpriteKey key = new SpriteKey(sprite.contents().name(), sprite.getU0(), sprite.getU1(), sprite.getV0(), sprite.getV1());
+        if (!key.equals(spriteKey)) {
+            quads.clear();
+            spriteKey = key;
+            boundSprite = sprite;
+        } else if (sprite != boundSprite) {
+            quads.replaceAll((entry, cached) -> List.copyOf(OverlayQuadFactory.rebind(cached, sprite)));
+            boundSprite = sprite;
+        }
+
+        Key entry = new Key(model, rotation);
+        List<BakedQuad> cached = quads.get(entry);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+        misses++;
+        List<BakedQuad> baked = rotation == 0
+                ? List.copyOf(OverlayQuadFactory.bake(model, sprite))
+                : List.copyOf(OverlayQuadFactory.rotateQuadsY(get(model, 0, sprite), rotation));
+        quads.put(entry, baked);
+        return baked;
+    }
+
+    /** Returns "hits/lookups" since the last call and resets the counters. */
+    public static synchronized String takeStats() {
+        String stats = hits + "/" + (hits + misses);
+        hits = 0;
+        misses = 0;
+        return stats;
+    }
+}
@@ -10,7 +10,9 @@ import org.joml.Vector3f;
 import org.joml.Vector3fc;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class OverlayQuadFactory {
 
@@ -18,118 +20,23 @@ public final class OverlayQuadFactory {
 
     // --- Public factory methods ---
 
-    public static List<BakedQuad> createStandardOverlay(TextureAtlasSprite sprite, int tintIndex) {
-        List<BakedQuad> quads = new ArrayList<>();
-        // UP faces at Y=16.01-16.02
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, Direction.UP,
-                0, 16.01f, 0, 16, 16.02f, 1));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, Direction.UP,
-                0, 16.01f, 15, 16, 16.02f, 16));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, Direction.UP,
-                0, 16.01f, 1, 1, 16.02f, 15));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, Direction.UP,
-                15, 16.01f, 1, 16, 16.02f, 15));
-        // Side strips at Y=15-16
-        quads.add(createQuad(sprite, tintIndex, Direction.NORTH, Direction.NORTH,
-                0, 15, -0.01f, 16, 16, -0.001f));
-        quads.add(createQuad(sprite, tintIndex, Direction.SOUTH, Direction.SOUTH,
-                0, 15, 16.001f, 16, 16, 16.01f));
-        quads.add(createQuad(sprite, tintIndex, Direction.WEST, Direction.WEST,
-                -0.01f, 15, 0, -0.001f, 16, 16));
-        quads.add(createQuad(sprite, tintIndex, Direction.EAST, Direction.EAST,
-                16.001f, 15, 0, 16.01f, 16, 16));
-        return quads;
-    }
-
-    public static List<BakedQuad> createBottomOverlay(TextureAtlasSprite sprite, int tintIndex) {
-        List<BakedQuad> quads = new ArrayList<>();
-        // DOWN faces at Y=-0.02 to -0.01
-        quads.add(createQuad(sprite, tintIndex, Direction.DOWN, Direction.DOWN,
-                0, -0.02f, 0, 16, -0.01f, 1));
-        quads.add(createQuad(sprite, tintIndex, Direction.DOWN, Direction.DOWN,
-                0, -0.02f, 15, 16, -0.01f, 16));
-        quads.add(createQuad(sprite, tintIndex, Direction.DOWN, Direction.DOWN,
-                0, -0.02f, 1, 1, -0.01f, 15));
-        quads.add(createQuad(sprite, tintIndex, Direction.DOWN, Direction.DOWN,
-                15, -0.02f, 1, 16, -0.01f, 15));
-        // Side strips at Y=0-1
-        quads.add(createQuad(sprite, tintIndex, Direction.NORTH, Direction.NORTH,
-                0, 0, -0.01f, 16, 1, -0.001f));
-        quads.add(createQuad(sprite, tintIndex, Direction.SOUTH, Direction.SOUTH,
-                0, 0, 16.001f, 16, 1, 16.01f));
-        quads.add(createQuad(sprite, tintIndex, Direction.WEST, Direction.WEST,
-                -0.01f, 0, 0, -0.001f, 1, 16));
-        quads.add(createQuad(sprite, tintIndex, Direction.EAST, Direction.EAST,
-                16.001f, 0, 0, 16.01f, 1, 16));
-        return quads;
-    }
-
-    public static List<BakedQuad> createPotOverlay(TextureAtlasSprite sprite, int tintIndex) {
-        List<BakedQuad> quads = new ArrayList<>();
-        // UP faces at Y=16.01-16.02, inset by 1
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                1, 16.01f, 1, 15, 16.02f, 2));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                1, 16.01f, 14, 15, 16.02f, 15));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                1, 16.01f, 2, 2, 16.02f, 14));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                14, 16.01f, 2, 15, 16.02f, 14));
-        // Side strips at Y=15-16, inset by 1
-        quads.add(createQuad(sprite, tintIndex, Direction.NORTH, null,
-                1, 15, 0.99f, 15, 16, 0.999f));
-        quads.add(createQuad(sprite, tintIndex, Direction.SOUTH, null,
-                1, 15, 15.001f, 15, 16, 15.01f));
-        quads.add(createQuad(sprite, tintIndex, Direction.WEST, null,
-                0.99f, 15, 1, 0.999f, 16, 15));
-        quads.add(createQuad(sprite, tintIndex, Direction.EAST, null,
-                15.001f, 15, 1, 15.01f, 16, 15));
-        return quads;
-    }
-
-    public static List<BakedQuad> createChestOverlay(TextureAtlasSprite sprite, int tintIndex) {
-        List<BakedQuad> quads = new ArrayList<>();
-        // UP faces at Y=9.01-9.02, inset by 1
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                1, 9.01f, 1, 15, 9.02f, 2));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                1, 9.01f, 14, 15, 9.02f, 15));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                1, 9.01f, 2, 2, 9.02f, 14));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                14, 9.01f, 2, 15, 9.02f, 14));
-        // Side strips at Y=8-9, inset by 1
-        quads.add(createQuad(sprite, tintIndex, Direction.NORTH, null,
-                1, 8, 0.99f, 15, 9, 0.999f));
-        quads.add(createQuad(sprite, tintIndex, Direction.SOUTH, null,
-                1, 8, 15.001f, 15, 9, 15.01f));
-        quads.add(createQuad(sprite, tintIndex, Direction.WEST, null,
-                0.99f, 8, 1, 0.999f, 9, 15));
-        quads.add(createQuad(sprite, tintIndex, Direction.EAST, null,
-                15.001f, 8, 1, 15.01f, 9, 15));
-        return quads;
-    }
-
-    public static List<BakedQuad> createDoubleChestOverlay(TextureAtlasSprite sprite, int tintIndex) {
+    /**
+     * Bakes every face of the model's elements into quads mapping the whole sprite.
+     */
+    public static List<BakedQuad> bake(OverlayModel model, TextureAtlasSprite sprite) {
         List<BakedQuad> quads = new ArrayList<>();
-        // UP faces at Y=9.01-9.02, X spans 1-31
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                1, 9.01f, 1, 31, 9.02f, 2));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                1, 9.01f, 14, 31, 9.02f, 15));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                1, 9.01f, 2, 2, 9.02f, 14));
-        quads.add(createQuad(sprite, tintIndex, Direction.UP, null,
-                30, 9.01f, 2, 31, 9.02f, 14));
-        // Side strips at Y=8-9
-        quads.add(createQuad(sprite, tintIndex, Direction.NORTH, null,
-                1, 8, 0.99f, 31, 9, 0.999f));
-        quads.add(createQuad(sprite, tintIndex, Direction.SOUTH, null,
-                1, 8, 15.001f, 31, 9, 15.01f));
-        quads.add(createQuad(sprite, tintIndex, Direction.WEST, null,
-                0.99f, 8, 1, 0.999f, 9, 15));
-        quads.add(createQuad(sprite, tintIndex, Direction.EAST, null,
-                31.001f, 8, 1, 31.01f, 9, 15));
+        // One material info per tint index, shared by all quads using it
+        Map<Integer, BakedQuad.MaterialInfo> materialInfos = new HashMap<>();
+        for (OverlayModel.Element element : model.elements()) {
+            Vector3fc from = element.from();
+            Vector3fc to = element.to();
+            for (OverlayModel.Face face : element.faces()) {
+                BakedQuad.MaterialInfo materialInfo = materialInfos.computeIfAbsent(face.tintIndex(),
+                        tintIndex -> materialInfo(sprite, tintIndex));
+                quads.add(createQuad(sprite, materialInfo, face.direction(), face.cullface(),
+                        from.x(), from.y(), from.z(), to.x(), to.y(), to.z()));
+            }
+        }
         return quads;
     }
 
@@ -145,6 +52,37 @@ public final class OverlayQuadFactory {
         return rotated;
     }
 
+    /**
+     * Copies of the quads drawn with another tint index.
+     */
+    public static List<BakedQuad> retint(List<BakedQuad> quads, TextureAtlasSprite sprite, int tintIndex) {
+        BakedQuad.MaterialInfo materialInfo = materialInfo(sprite, tintIndex);
+        List<BakedQuad> retinted = new ArrayList<>(quads.size());
+        for (BakedQuad quad : quads) {
+            retinted.add(new BakedQuad(quad.position0(), quad.position1(), quad.position2(), quad.position3(),
+                    quad.packedUV0(), quad.packedUV1(), quad.packedUV2(), quad.packedUV3(),
+                    quad.direction(), materialInfo));
+        }
+        return retinted;
+    }
+
+    /**
+     * Copies of the quads bound to another instance of their sprite, keeping each quad's
+     * geometry, UVs and tint index.
+     */
+    public static List<BakedQuad> rebind(List<BakedQuad> quads, TextureAtlasSprite sprite) {
+        Map<Integer, BakedQuad.MaterialInfo> materialInfos = new HashMap<>();
+        List<BakedQuad> rebound = new ArrayList<>(quads.size());
+        for (BakedQuad quad : quads) {
+            BakedQuad.MaterialInfo materialInfo = materialInfos.computeIfAbsent(quad.materialInfo().tintIndex(),
+                    tintIndex -> materialInfo(sprite, tintIndex));
+            rebound.add(new BakedQuad(quad.position0(), quad.position1(), quad.position2(), quad.position3(),
+                    quad.packedUV0(), quad.packedUV1(), quad.packedUV2(), quad.packedUV3(),
+                    quad.direction(), materialInfo));
+        }
+        return rebound;
+    }
+
     // --- Internal helpers ---
 
     private static BakedQuad rotateQuadY(BakedQuad quad, int steps) {
@@ -198,21 +136,28 @@ public final class OverlayQuadFactory {
         return result;
     }
 
+    // Shared by all quads of an overlay with the same tint (and their rotations)
+    private static BakedQuad.MaterialInfo materialInfo(TextureAtlasSprite sprite, int tintIndex) {
+        // CUTOUT layer, tint, no shade, no light emission
+        Material.Baked bakedMaterial = new Material.Baked(sprite, false);
+        return BakedQuad.MaterialInfo.of(bakedMaterial, sprite.transparency(), tintIndex, false, 0);
+    }
+
     /**
      * Creates a single BakedQuad from model-space coordinates.
      *
-     * @param sprite    the texture sprite
-     * @param tintIndex the tint index for color provider
-     * @param face      the face direction (determines vertex winding)
-     * @param cullface  the cullface direction, or null for unculled
-     * @param x0        from X in model-space (0-16)
-     * @param y0        from Y in model-space
-     * @param z0        from Z in model-space
-     * @param x1        to X in model-space
-     * @param y1        to Y in model-space
-     * @param z1        to Z in model-space
+     * @param sprite       the texture sprite
+     * @param materialInfo shared material info for the overlay's quads
+     * @param face         the face direction (determines vertex winding)
+     * @param cullface     the cullface direction, or null for unculled
+     * @param x0           from X in model-space (0-16)
+     * @param y0           from Y in model-space
+     * @param z0           from Z in model-space
+     * @param x1           to X in model-space
+     * @param y1           to Y in model-space
+     * @param z1           to Z in model-space
      */
-    private static BakedQuad createQuad(TextureAtlasSprite sprite, int tintIndex,
+    private static BakedQuad createQuad(TextureAtlasSprite sprite, BakedQuad.MaterialInfo materialInfo,
                                         Direction face, Direction cullface,
                                         float x0, float y0, float z0,
                                         float x1, float y1, float z1) {
@@ -279,11 +224,6 @@ public final class OverlayQuadFactory {
         // cullface: use the cullface direction for the BakedQuad's direction field
         Direction quadDir = cullface != null ? cullface : face;
 
-        // Build MaterialInfo with CUTOUT layer, tint, no shade, no light emission
-        Material.Baked bakedMaterial = new Material.Baked(sprite, false);
-        BakedQuad.MaterialInfo materialInfo = BakedQuad.MaterialInfo.of(
-                bakedMaterial, sprite.transparency(), tintIndex, false, 0);
-
         return new BakedQuad(p0, p1, p2, p3, uv0, uv1, uv2, uv3,
                 quadDir, materialInfo);
     }
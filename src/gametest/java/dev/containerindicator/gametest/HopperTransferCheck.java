@@ -0,0 +1,72 @@
+package dev.containerindicator.gametest;
+
+import dev.containerindicator.IndicatorMetrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.HopperBlock;
+
+/**
+ * One hopper passing an item to another, run by {@link IndicatorLoadBenchmark} before its
+ * scenarios. The transfer must cost one evaluation per hopper: the {@code setChanged} calls
+ * vanilla makes around {@code removeItem}/{@code setItem} must not queue further evaluations.
+ */
+final class HopperTransferCheck {
+
+    private static final BlockPos SOURCE = new BlockPos(0, 2, 0);
+    private static final BlockPos TARGET = new BlockPos(1, 2, 0);
+    // Powers the source hopper until the evaluations of the setup have been flushed
+    private static final BlockPos LOCK = new BlockPos(0, 1, 0);
+    private static final int SETTLE_TICKS = 2;
+    private static final int MAX_TICKS = 40;
+    private static final long EXPECTED_EVALUATIONS = 2;
+
+    private int tick;
+    private long evaluationsBefore;
+    private int arrivedTick = -1;
+    private boolean passed;
+
+    boolean passed() {
+        return passed;
+    }
+
+    void tick(GameTestHelper helper) {
+        if (tick == 0) {
+            helper.setBlock(LOCK, Blocks.REDSTONE_BLOCK.defaultBlockState());
+            helper.setBlock(SOURCE, Blocks.HOPPER.defaultBlockState().setValue(HopperBlock.FACING, Direction.EAST));
+            helper.setBlock(TARGET, Blocks.HOPPER.defaultBlockState().setValue(HopperBlock.FACING, Direction.DOWN));
+            container(helper, SOURCE).setItem(0, new ItemStack(Items.COBBLESTONE));
+        } else if (tick == SETTLE_TICKS) {
+            evaluationsBefore = IndicatorMetrics.evaluations();
+            helper.setBlock(LOCK, Blocks.AIR.defaultBlockState());
+        } else if (tick > SETTLE_TICKS) {
+            if (arrivedTick < 0 && !container(helper, TARGET).isEmpty()) {
+                arrivedTick = tick;
+            }
+            if (arrivedTick >= 0 && tick >= arrivedTick + SETTLE_TICKS) {
+                long evaluations = IndicatorMetrics.evaluations() - evaluationsBefore;
+                if (evaluations != EXPECTED_EVALUATIONS) {
+                    helper.fail(Component.literal("Hopper transfer cost " + evaluations + " evaluations, expected "
+                            + EXPECTED_EVALUATIONS + " (one per hopper)"));
+                }
+                helper.setBlock(SOURCE, Blocks.AIR.defaultBlockState());
+                helper.setBlock(TARGET, Blocks.AIR.defaultBlockState());
+                passed = true;
+                return;
+            }
+            if (tick >= MAX_TICKS) {
+                helper.fail(Component.literal("Item never reached the target hopper"));
+            }
+        }
+        tick++;
+    }
+
+    private static Container container(GameTestHelper helper, BlockPos relative) {
+        return (Container) helper.getLevel().getBlockEntity(helper.absolutePos(relative));
+    }
+}
@@ -0,0 +1,160 @@
+package dev.containerindicator.gametest;
+
+import dev.containerindicator.BlockEnablementTable;
+import dev.containerindicator.ContainerIndicator;
+import dev.containerindicator.ContainerIndicatorConfig;
+import net.fabricmc.fabric.api.gametest.v1.GameTest;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.phys.AABB;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server tick time of container-heavy builds with indicators off and on.
+ *
+ * <p>Before the scenarios, {@link HopperTransferCheck} checks that a single hopper transfer
+ * costs one evaluation per hopper.
+ *
+ * <p>Each scenario is built, warmed up, measured and cleared three times, alternating the
+ * indicator setting (off/on/off, or on/off/on for every other scenario). Each setting is then
+ * measured both before and after the other, so JIT and world warm-up don't favour the setting
+ * that happens to run last. Everything runs inside a single test so no other test shares the
+ * measured ticks or sees the config toggled. Results are logged and written to
+ * {@code indicator-load-benchmark.csv} in the run directory.
+ *
+ * <p>"Off" disables every block through the config, as a server operator would; the
+ * container mixins still run, so the difference is the cost of tracking and syncing
+ * indicators on top of the mod being installed.
+ */
+public class IndicatorLoadBenchmark {
+
+    static final int MAX_HEIGHT = 17;
+
+    // How far past the 8x8 footprint and build height dropped items are looked for
+    private static final int SPILL_MARGIN = 8;
+
+    private static final int WARMUP_TICKS = 100;
+    private static final int MEASURED_TICKS = 600;
+    private static final int PHASE_TICKS = WARMUP_TICKS + MEASURED_TICKS + 1;
+
+    private static final int RUNS_PER_SCENARIO = 3;
+
+    // Annotation values must be constants; checked against LoadScenarios.all() below
+    private static final int SCENARIO_COUNT = 5;
+    private static final List<LoadScenario> SCENARIOS = LoadScenarios.all();
+
+    static {
+        if (SCENARIOS.size() != SCENARIO_COUNT) {
+            throw new IllegalStateException("SCENARIO_COUNT is " + SCENARIO_COUNT + " but LoadScenarios.all() has "
+                    + SCENARIOS.size() + " scenarios");
+        }
+    }
+
+    @GameTest(maxTicks = RUNS_PER_SCENARIO * PHASE_TICKS * SCENARIO_COUNT + 200)
+    public void loadBenchmark(GameTestHelper helper) {
+        TickTimer.register();
+        boolean configEnabled = ContainerIndicatorConfig.instance().enabled;
+        RandomSource random = RandomSource.create(42);
+        List<String> rows = new ArrayList<>();
+        rows.add("scenario,run,indicators,mean_ms,p50_ms,p95_ms,p99_ms,max_ms,ticks");
+
+        // One phase per scenario run, driven one tick at a time
+        int phases = SCENARIOS.size() * RUNS_PER_SCENARIO;
+        int[] phase = {0};
+        int[] tick = {-1};
+        HopperTransferCheck transferCheck = new HopperTransferCheck();
+        helper.onEachTick(() -> {
+            if (!transferCheck.passed()) {
+                transferCheck.tick(helper);
+                return;
+            }
+            if (phase[0] >= phases) {
+                return;
+            }
+            int scenarioIndex = phase[0] / RUNS_PER_SCENARIO;
+            int run = phase[0] % RUNS_PER_SCENARIO;
+            LoadScenario scenario = SCENARIOS.get(scenarioIndex);
+            // Alternate within a scenario, and start every other scenario with indicators on
+            boolean indicators = (scenarioIndex + run) % 2 == 1;
+
+            if (tick[0] < 0) {
+                // Items left over from an earlier run would add work to this one
+                int leftover = droppedItems(helper).size();
+                if (leftover > 0) {
+                    helper.fail(Component.literal(leftover + " item entities left before " + scenario.name()
+                            + " run " + (run + 1)));
+                }
+                setIndicators(indicators);
+                scenario.build(helper, random);
+            } else {
+                scenario.tick(helper, tick[0], random);
+            }
+            if (tick[0] == WARMUP_TICKS) {
+                TickTimer.start();
+            }
+            tick[0]++;
+            if (tick[0] < PHASE_TICKS) {
+                return;
+            }
+
+            TickTimer.Result result = TickTimer.stop();
+            String setting = indicators ? "on" : "off";
+            ContainerIndicator.LOGGER.info("[Handy Indicator] Benchmark {} run {}, indicators {}: {}",
+                    scenario.name(), run + 1, setting, result.describe());
+            rows.add("\"" + scenario.name() + "\"," + (run + 1) + "," + setting + "," + result.csv());
+            clear(helper);
+            phase[0]++;
+            tick[0] = -1;
+
+            if (phase[0] == phases) {
+                setIndicators(configEnabled);
+                writeResults(helper, rows);
+                helper.succeed();
+            }
+        });
+    }
+
+    private static void setIndicators(boolean enabled) {
+        ContainerIndicatorConfig.instance().enabled = enabled;
+        BlockEnablementTable.rebuild();
+    }
+
+    private static void clear(GameTestHelper helper) {
+        for (int y = MAX_HEIGHT; y >= 1; y--) {
+            for (int x = 0; x < 8; x++) {
+                for (int z = 0; z < 8; z++) {
+                    helper.setBlock(new BlockPos(x, y, z), Blocks.AIR.defaultBlockState());
+                }
+            }
+        }
+        // Broken containers drop their contents, and droppers spill past the test structure
+        for (ItemEntity item : droppedItems(helper)) {
+            item.discard();
+        }
+    }
+
+    private static List<ItemEntity> droppedItems(GameTestHelper helper) {
+        BlockPos from = helper.absolutePos(new BlockPos(-SPILL_MARGIN, 0, -SPILL_MARGIN));
+        BlockPos to = helper.absolutePos(new BlockPos(8 + SPILL_MARGIN, MAX_HEIGHT + 1 + SPILL_MARGIN, 8 + SPILL_MARGIN));
+        return helper.getLevel().getEntitiesOfClass(ItemEntity.class, AABB.encapsulatingFullBlocks(from, to));
+    }
+
+    private static void writeResults(GameTestHelper helper, List<String> rows) {
+        Path file = helper.getLevel().getServer().getServerDirectory().resolve("indicator-load-benchmark.csv");
+        try {
+            Files.write(file, rows);
+            ContainerIndicator.LOGGER.info("[Handy Indicator] Benchmark results written to {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            ContainerIndicator.LOGGER.warn("[Handy Indicator] Could not write benchmark results", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dev.containerindicator.gametest;
+
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.util.RandomSource;
+
+/**
+ * A build that exercises containers every tick. Coordinates are relative to the test and
+ * stay within an 8x8 footprint, from y 1 to {@link IndicatorLoadBenchmark#MAX_HEIGHT}.
+ */
+interface LoadScenario {
+
+    String name();
+
+    void build(GameTestHelper helper, RandomSource random);
+
+    /** Drives the build for one tick; {@code tick} counts from 0 after {@link #build}. */
+    void tick(GameTestHelper helper, int tick, RandomSource random);
+}
@@ -0,0 +1,307 @@
+package dev.containerindicator.gametest;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.ChestBlock;
+import net.minecraft.world.level.block.DropperBlock;
+import net.minecraft.world.level.block.HopperBlock;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.ChestType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The builds measured by {@link IndicatorLoadBenchmark}.
+ */
+final class LoadScenarios {
+
+    private static final int SIZE = 8;
+
+    private LoadScenarios() {}
+
+    static List<LoadScenario> all() {
+        return List.of(new HopperChain(), new DropperClock(), new ChestWall(), new FurnaceArray(), new BarrelFill());
+    }
+
+    private static Container container(GameTestHelper helper, BlockPos relative) {
+        BlockEntity be = helper.getLevel().getBlockEntity(helper.absolutePos(relative));
+        return (Container) be;
+    }
+
+    /**
+     * 1,024 hoppers in one chain, snaking through 16 layers of 8x8, fed from a chest on top.
+     * Every other hopper starts with an item, so most of the chain moves items every cycle.
+     */
+    static final class HopperChain implements LoadScenario {
+        private static final int LAYERS = 16;
+
+        private final List<BlockPos> path = new ArrayList<>();
+
+        HopperChain() {
+            for (int layer = 0; layer < LAYERS; layer++) {
+                int y = LAYERS - layer;
+                List<BlockPos> cells = new ArrayList<>();
+                for (int z = 0; z < SIZE; z++) {
+                    for (int i = 0; i < SIZE; i++) {
+                        cells.add(new BlockPos(z % 2 == 0 ? i : SIZE - 1 - i, y, z));
+                    }
+                }
+                // Each layer starts under the previous layer's last hopper
+                if (layer % 2 == 1) {
+                    cells = cells.reversed();
+                }
+                path.addAll(cells);
+            }
+        }
+
+        @Override
+        public String name() {
+            return "hopper chain (" + path.size() + " hoppers)";
+        }
+
+        @Override
+        public void build(GameTestHelper helper, RandomSource random) {
+            for (int i = 0; i < path.size(); i++) {
+                BlockPos pos = path.get(i);
+                Direction facing = Direction.DOWN;
+                if (i + 1 < path.size() && path.get(i + 1).getY() == pos.getY()) {
+                    BlockPos next = path.get(i + 1);
+                    facing = Direction.fromDelta(next.getX() - pos.getX(), 0, next.getZ() - pos.getZ());
+                }
+                helper.setBlock(pos, Blocks.HOPPER.defaultBlockState().setValue(HopperBlock.FACING, facing));
+                if (i % 2 == 0) {
+                    container(helper, pos).setItem(0, new ItemStack(Items.COBBLESTONE));
+                }
+            }
+            BlockPos feeder = path.getFirst().above();
+            helper.setBlock(feeder, Blocks.CHEST.defaultBlockState());
+            Container chest = container(helper, feeder);
+            for (int slot = 0; slot < chest.getContainerSize(); slot++) {
+                chest.setItem(slot, new ItemStack(Items.COBBLESTONE, 64));
+            }
+        }
+
+        @Override
+        public void tick(GameTestHelper helper, int tick, RandomSource random) {
+            // The chain runs on its own
+        }
+    }
+
+    /**
+     * 256 droppers in facing pairs on a redstone clock, passing an item back and forth on
+     * every pulse. Droppers share the dispenser block entity and its indicator path.
+     */
+    static final class DropperClock implements LoadScenario {
+        private static final int LAYERS = 4;
+        private static final int HALF_PERIOD = 2;
+
+        @Override
+        public String name() {
+            return "dropper clock (" + LAYERS * SIZE * SIZE + " droppers)";
+        }
+
+        @Override
+        public void build(GameTestHelper helper, RandomSource random) {
+            for (int layer = 0; layer < LAYERS; layer++) {
+                int y = 2 + layer * 3;
+                for (int x = 0; x < SIZE; x++) {
+                    for (int z = 0; z < SIZE; z++) {
+                        Direction facing = x % 2 == 0 ? Direction.EAST : Direction.WEST;
+                        BlockPos pos = new BlockPos(x, y, z);
+                        helper.setBlock(pos, Blocks.DROPPER.defaultBlockState().setValue(DropperBlock.FACING, facing));
+                        if (x % 2 == 0) {
+                            container(helper, pos).setItem(0, new ItemStack(Items.REDSTONE));
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void tick(GameTestHelper helper, int tick, RandomSource random) {
+            if (tick % HALF_PERIOD != 0) {
+                return;
+            }
+            BlockState power = (tick / HALF_PERIOD) % 2 == 0
+                    ? Blocks.REDSTONE_BLOCK.defaultBlockState()
+                    : Blocks.AIR.defaultBlockState();
+            for (int layer = 0; layer < LAYERS; layer++) {
+                int y = 1 + layer * 3;
+                for (int x = 0; x < SIZE; x++) {
+                    for (int z = 0; z < SIZE; z++) {
+                        helper.setBlock(new BlockPos(x, y, z), power);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A sorting wall of 96 double chests, each half fed by a hopper. Items arrive in random
+     * hoppers every tick, like a sorter or copper golem distributing them, and random chests
+     * are emptied by "players" so indicators keep flipping in both directions.
+     */
+    static final class ChestWall implements LoadScenario {
+        private static final int LAYERS = 3;
+        private static final int ITEMS_PER_TICK = 8;
+        private static final int CHESTS_EMPTIED_PER_SECOND = 8;
+
+        private final List<BlockPos> chests = new ArrayList<>();
+        private final List<BlockPos> hoppers = new ArrayList<>();
+
+        @Override
+        public String name() {
+            return "double chest wall (" + LAYERS * SIZE * SIZE / 2 + " double chests)";
+        }
+
+        @Override
+        public void build(GameTestHelper helper, RandomSource random) {
+            chests.clear();
+            hoppers.clear();
+            for (int layer = 0; layer < LAYERS; layer++) {
+                int y = 1 + layer * 3;
+                for (int x = 0; x < SIZE; x++) {
+                    for (int z = 0; z < SIZE; z++) {
+                        // Facing north, the left half connects east
+                        ChestType type = x % 2 == 0 ? ChestType.LEFT : ChestType.RIGHT;
+                        BlockPos chest = new BlockPos(x, y, z);
+                        helper.setBlock(chest, Blocks.CHEST.defaultBlockState()
+                                .setValue(ChestBlock.FACING, Direction.NORTH)
+                                .setValue(ChestBlock.TYPE, type));
+                        BlockPos hopper = chest.above();
+                        helper.setBlock(hopper, Blocks.HOPPER.defaultBlockState()
+                                .setValue(HopperBlock.FACING, Direction.DOWN));
+                        chests.add(chest);
+                        hoppers.add(hopper);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void tick(GameTestHelper helper, int tick, RandomSource random) {
+            for (int i = 0; i < ITEMS_PER_TICK; i++) {
+                Container hopper = container(helper, hoppers.get(random.nextInt(hoppers.size())));
+                int slot = random.nextInt(hopper.getContainerSize());
+                if (hopper.getItem(slot).isEmpty()) {
+                    hopper.setItem(slot, new ItemStack(Items.IRON_INGOT));
+                }
+            }
+            if (tick % 20 == 0) {
+                for (int i = 0; i < CHESTS_EMPTIED_PER_SECOND; i++) {
+                    Container chest = container(helper, chests.get(random.nextInt(chests.size())));
+                    for (int slot = 0; slot < chest.getContainerSize(); slot++) {
+                        if (!chest.getItem(slot).isEmpty()) {
+                            chest.setItem(slot, ItemStack.EMPTY);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 128 furnaces smelting small batches, restocked with staggered amounts so input and
+     * fuel run out at different times across the array.
+     */
+    static final class FurnaceArray implements LoadScenario {
+        private static final int LAYERS = 2;
+        private static final int RESTOCK_INTERVAL = 100;
+
+        @Override
+        public String name() {
+            return "furnace array (" + LAYERS * SIZE * SIZE + " furnaces)";
+        }
+
+        @Override
+        public void build(GameTestHelper helper, RandomSource random) {
+            for (int y = 1; y <= LAYERS; y++) {
+                for (int x = 0; x < SIZE; x++) {
+                    for (int z = 0; z < SIZE; z++) {
+                        BlockPos pos = new BlockPos(x, y, z);
+                        helper.setBlock(pos, Blocks.FURNACE.defaultBlockState());
+                        restock(container(helper, pos), random);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void tick(GameTestHelper helper, int tick, RandomSource random) {
+            if (tick % RESTOCK_INTERVAL != 0) {
+                return;
+            }
+            for (int y = 1; y <= LAYERS; y++) {
+                for (int x = 0; x < SIZE; x++) {
+                    for (int z = 0; z < SIZE; z++) {
+                        restock(container(helper, new BlockPos(x, y, z)), random);
+                    }
+                }
+            }
+        }
+
+        private static void restock(Container furnace, RandomSource random) {
+            if (furnace.getItem(0).isEmpty()) {
+                furnace.setItem(0, new ItemStack(Items.RAW_IRON, 1 + random.nextInt(3)));
+            }
+            if (furnace.getItem(1).isEmpty()) {
+                furnace.setItem(1, new ItemStack(Items.STICK, 1 + random.nextInt(2)));
+            }
+            furnace.setItem(2, ItemStack.EMPTY);
+        }
+    }
+
+    /**
+     * 512 filled barrels placed and then cleared with {@code /fill ... air} every second.
+     */
+    static final class BarrelFill implements LoadScenario {
+        private static final int HEIGHT = 8;
+
+        @Override
+        public String name() {
+            return "barrel /fill clears (" + HEIGHT * SIZE * SIZE + " barrels)";
+        }
+
+        @Override
+        public void build(GameTestHelper helper, RandomSource random) {
+            place(helper, random);
+        }
+
+        @Override
+        public void tick(GameTestHelper helper, int tick, RandomSource random) {
+            if (tick % 20 == 10) {
+                BlockPos from = helper.absolutePos(new BlockPos(0, 1, 0));
+                BlockPos to = helper.absolutePos(new BlockPos(SIZE - 1, HEIGHT, SIZE - 1));
+                MinecraftServer server = helper.getLevel().getServer();
+                server.getCommands().performPrefixedCommand(
+                        server.createCommandSourceStack().withLevel(helper.getLevel()).withSuppressedOutput(),
+                        "fill " + from.getX() + " " + from.getY() + " " + from.getZ() + " "
+                                + to.getX() + " " + to.getY() + " " + to.getZ() + " minecraft:air");
+            } else if (tick % 20 == 0) {
+                place(helper, random);
+            }
+        }
+
+        private static void place(GameTestHelper helper, RandomSource random) {
+            for (int y = 1; y <= HEIGHT; y++) {
+                for (int x = 0; x < SIZE; x++) {
+                    for (int z = 0; z < SIZE; z++) {
+                        BlockPos pos = new BlockPos(x, y, z);
+                        helper.setBlock(pos, Blocks.BARREL.defaultBlockState());
+                        Container barrel = container(helper, pos);
+                        barrel.setItem(random.nextInt(barrel.getContainerSize()), new ItemStack(Items.OAK_LOG, 16));
+                    }
+                }
+            }
+        }
+    }
+}
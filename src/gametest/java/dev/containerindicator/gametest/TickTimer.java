@@ -0,0 +1,76 @@
+package dev.containerindicator.gametest;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Measures whole server ticks (everything between the tick start and end events) while
+ * recording is on.
+ */
+final class TickTimer {
+
+    private static boolean registered;
+    private static boolean recording;
+    private static long tickStart;
+    private static final LongArrayList samples = new LongArrayList();
+
+    private TickTimer() {}
+
+    static void register() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+        ServerTickEvents.START_SERVER_TICK.register(server -> tickStart = System.nanoTime());
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (recording) {
+                samples.add(System.nanoTime() - tickStart);
+            }
+        });
+    }
+
+    static void start() {
+        samples.clear();
+        recording = true;
+    }
+
+    static Result stop() {
+        recording = false;
+        long[] sorted = samples.toLongArray();
+        Arrays.sort(sorted);
+        return new Result(sorted);
+    }
+
+    record Result(long[] sortedNanos) {
+        double percentileMs(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+            return sortedNanos[Math.clamp(index, 0, sortedNanos.length - 1)] / 1_000_000.0;
+        }
+
+        double meanMs() {
+            long total = 0;
+            for (long nanos : sortedNanos) {
+                total += nanos;
+            }
+            return sortedNanos.length == 0 ? 0 : total / (sortedNanos.length * 1_000_000.0);
+        }
+
+        String describe() {
+            return String.format(Locale.ROOT, "mean %.3f, p50 %.3f, p95 %.3f, p99 %.3f, max %.3f ms (%d ticks)",
+                    meanMs(), percentileMs(50), percentileMs(95), percentileMs(99), percentileMs(100),
+                    sortedNanos.length);
+        }
+
+        String csv() {
+            return String.format(Locale.ROOT, "%.4f,%.4f,%.4f,%.4f,%.4f,%d",
+                    meanMs(), percentileMs(50), percentileMs(95), percentileMs(99), percentileMs(100),
+                    sortedNanos.length);
+        }
+    }
+}
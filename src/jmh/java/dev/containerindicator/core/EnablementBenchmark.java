@@ -0,0 +1,83 @@
+package dev.containerindicator.core;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ContainerIndicator.isBlockEnabled}: the block's registry id lookup followed by the
+ * table lookup. The registry is stood in for by the identity-keyed id map
+ * {@code BuiltInRegistries.BLOCK.getId} reads, filled with one object per block.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EnablementBenchmark {
+
+    // Roughly vanilla, and a large modpack
+    @Param({"1200", "20000"})
+    public int registrySize;
+
+    private static final int LOOKUPS = 1024;
+
+    private BlockIdSet enabled;
+    private final Reference2IntOpenHashMap<Object> registryIds = new Reference2IntOpenHashMap<>();
+    private Object[] blocks;
+    private int[] ids;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        boolean[] members = new boolean[registrySize];
+        for (int i = 0; i < 40; i++) {
+            members[random.nextInt(registrySize)] = true;
+        }
+        enabled = new BlockIdSet(members);
+
+        Object[] registry = new Object[registrySize];
+        for (int id = 0; id < registrySize; id++) {
+            registry[id] = new Object();
+            registryIds.put(registry[id], id);
+        }
+        registryIds.defaultReturnValue(-1);
+        blocks = new Object[LOOKUPS];
+        ids = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids[i] = random.nextInt(registrySize);
+            blocks[i] = registry[ids[i]];
+        }
+    }
+
+    /** Average over {@value #LOOKUPS} lookups of random blocks; divide by that for a single call. */
+    @Benchmark
+    public int isEnabled() {
+        int hits = 0;
+        for (Object block : blocks) {
+            if (enabled.contains(registryIds.getInt(block))) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /** The table lookup alone, for ids already known; the difference to {@link #isEnabled} is the registry. */
+    @Benchmark
+    public int tableOnly() {
+        int hits = 0;
+        for (int id : ids) {
+            if (enabled.contains(id)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,99 @@
+package dev.containerindicator.core;
+
+import dev.containerindicator.core.SyntheticContainers.Fill;
+import dev.containerindicator.core.SyntheticContainers.Stack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-container decisions behind {@code ContainerStateHelper}:
+ * <ul>
+ *     <li>{@code updateHasItems(BlockEntity, List)}: tracked occupancy lookup ({@link #trackedHasItems})
+ *     and the slot update that precedes it on {@code setItem} ({@link #setItemThenHasItems})</li>
+ *     <li>{@code updateHasItems(BlockEntity, Container)} for untracked containers: a full scan
+ *     ({@link #scanHasItems})</li>
+ *     <li>{@code updateFurnaceState}: {@link #furnaceFlags}</li>
+ *     <li>{@code updateChestHasItems}: both halves of a double chest ({@link #doubleChestFlags})</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OccupancyBenchmark {
+
+    // Dispenser/hopper-sized, single chest/barrel and double chest
+    @Param({"5", "27", "54"})
+    public int size;
+
+    @Param({"EMPTY", "FIRST", "LAST", "SPARSE", "FULL"})
+    public Fill fill;
+
+    private List<Stack> items;
+    private List<Stack> neighbour;
+    private SlotOccupancy<Stack> occupancy;
+    private SlotOccupancy<Stack> neighbourOccupancy;
+    private int slot;
+    private Stack replaced;
+    private final Stack filled = new Stack(1);
+    private boolean flipped;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        items = SyntheticContainers.container(size, fill, random);
+        neighbour = SyntheticContainers.container(size, fill, random);
+        occupancy = new SlotOccupancy<>(Stack::isEmpty);
+        occupancy.rebuild(items);
+        neighbourOccupancy = new SlotOccupancy<>(Stack::isEmpty);
+        neighbourOccupancy.rebuild(neighbour);
+    }
+
+    @Benchmark
+    public boolean trackedHasItems() {
+        return occupancy.hasItems(items);
+    }
+
+    @Benchmark
+    public boolean setItemThenHasItems() {
+        // Empty a filled slot or fill an empty one, then put it back on the next call, so every
+        // update flips the slot's bit; cycle through slots, as a hopper chain feeding a container does
+        int changed = slot;
+        if (flipped) {
+            items.set(changed, replaced);
+            slot = slot + 1 == size ? 0 : slot + 1;
+        } else {
+            replaced = items.get(changed);
+            items.set(changed, replaced.isEmpty() ? filled : Stack.EMPTY);
+        }
+        flipped = !flipped;
+        occupancy.update(items, changed);
+        return occupancy.hasItems(items);
+    }
+
+    @Benchmark
+    public boolean scanHasItems() {
+        return IndicatorFlags.firstOccupied(items, Stack::isEmpty) >= 0;
+    }
+
+    @Benchmark
+    public int furnaceFlags() {
+        return IndicatorFlags.furnace(items, Stack::isEmpty);
+    }
+
+    @Benchmark
+    public int doubleChestFlags() {
+        boolean thisHasItems = occupancy.hasItems(items);
+        boolean neighbourHasItems = !thisHasItems && neighbourOccupancy.hasItems(neighbour);
+        return IndicatorFlags.chest(thisHasItems, neighbourHasItems);
+    }
+}
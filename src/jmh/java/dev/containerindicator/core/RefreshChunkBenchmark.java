@@ -0,0 +1,109 @@
+package dev.containerindicator.core;
+
+import dev.containerindicator.core.SyntheticContainers.Box;
+import dev.containerindicator.core.SyntheticContainers.Fill;
+import dev.containerindicator.core.SyntheticContainers.Stack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ChunkRefresh#refresh}, the decision loop of {@code ContainerStateHelper.refreshChunk},
+ * over one chunk's worth of synthetic containers: per container, rebuild its occupancy, check
+ * enablement and compute its flags, reading the other half of double chests. Blockstate
+ * writes and the chunk's block entity index are not included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RefreshChunkBenchmark {
+
+    // A few chests, a storage room, a dense storage/sorting chunk
+    @Param({"8", "128", "1024"})
+    public int containers;
+
+    @Param({"EMPTY", "SPARSE", "FULL"})
+    public Fill fill;
+
+    @Param({"false", "true"})
+    public boolean fillTiers;
+
+    private List<Box> boxes;
+    private BlockIdSet enabled;
+    private int lit;
+
+    private final ChunkRefresh.Access<Box, Stack> access = new ChunkRefresh.Access<>() {
+        @Override
+        public ChunkRefresh.Kind kind(Box box) {
+            return ChunkRefresh.Kind.ITEMS;
+        }
+
+        @Override
+        public int blockId(Box box) {
+            return box.blockId;
+        }
+
+        @Override
+        public List<Stack> items(Box box) {
+            return box.items;
+        }
+
+        @Override
+        public SlotOccupancy<Stack> occupancy(Box box) {
+            return box.occupancy;
+        }
+
+        @Override
+        public Box partner(Box box) {
+            return box.partner;
+        }
+
+        @Override
+        public boolean isEmpty(Stack stack) {
+            return stack.isEmpty();
+        }
+
+        @Override
+        public int slotFill(Stack stack) {
+            return IndicatorFlags.slotFill(stack.count, 64);
+        }
+
+        @Override
+        public void setFlags(Box box, int flags) {
+            lit += flags;
+        }
+
+        @Override
+        public void setPartnerFlags(Box partner, int flags) {
+            lit += flags;
+        }
+    };
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        boolean[] members = new boolean[1200];
+        boxes = SyntheticContainers.chunk(containers, fill, fillTiers, members.length, random);
+        for (Box box : boxes) {
+            // Most container types enabled, as with default settings
+            members[box.blockId] = random.nextInt(10) != 0;
+        }
+        enabled = new BlockIdSet(members);
+    }
+
+    @Benchmark
+    public int refreshChunk() {
+        lit = 0;
+        ChunkRefresh.refresh(boxes, access, enabled, fillTiers);
+        return lit;
+    }
+}
@@ -0,0 +1,118 @@
+package dev.containerindicator.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic container contents for the benchmarks: a stand-in stack type and the fill
+ * patterns that matter for indicator checks.
+ */
+final class SyntheticContainers {
+
+    // Share of containers placed as double chests, in pairs
+    static final int DOUBLE_CHEST_ONE_IN = 4;
+
+    private SyntheticContainers() {}
+
+    /** Stand-in for an item stack; only emptiness matters to the indicator logic. */
+    static final class Stack {
+        static final Stack EMPTY = new Stack(0);
+
+        int count;
+
+        Stack(int count) {
+            this.count = count;
+        }
+
+        boolean isEmpty() {
+            return count <= 0;
+        }
+    }
+
+    /**
+     * Stand-in for an indicator block entity. Halves of a double chest share a block id and
+     * point at each other through {@code partner}.
+     */
+    static final class Box {
+        final int blockId;
+        final List<Stack> items;
+        final SlotOccupancy<Stack> occupancy;
+        Box partner;
+
+        Box(int blockId, List<Stack> items, SlotOccupancy<Stack> occupancy) {
+            this.blockId = blockId;
+            this.items = items;
+            this.occupancy = occupancy;
+        }
+    }
+
+    enum Fill {
+        /** Nothing in any slot: every check walks the whole container. */
+        EMPTY,
+        /** Only the first slot filled: the best case for a scan. */
+        FIRST,
+        /** Only the last slot filled: the worst case for a scan that finds something. */
+        LAST,
+        /** Roughly one slot in eight filled at random positions. */
+        SPARSE,
+        /** Every slot filled. */
+        FULL
+    }
+
+    /**
+     * One chunk's worth of containers with random block ids below {@code blockIds}: dispenser,
+     * hopper and chest-sized, with one in {@link #DOUBLE_CHEST_ONE_IN} placed as the first half
+     * of a double chest, whose second half follows it.
+     */
+    static List<Box> chunk(int containers, Fill fill, boolean fillTiers, int blockIds, SplittableRandom random) {
+        int[] sizes = {5, 9, 27, 27, 27};
+        List<Box> boxes = new ArrayList<>(containers);
+        while (boxes.size() < containers) {
+            int blockId = random.nextInt(blockIds);
+            if (boxes.size() + 1 < containers && random.nextInt(DOUBLE_CHEST_ONE_IN) == 0) {
+                Box first = new Box(blockId, container(27, fill, random), occupancy(fillTiers));
+                Box second = new Box(blockId, container(27, fill, random), occupancy(fillTiers));
+                first.partner = second;
+                second.partner = first;
+                boxes.add(first);
+                boxes.add(second);
+            } else {
+                boxes.add(new Box(blockId, container(sizes[random.nextInt(sizes.length)], fill, random),
+                        occupancy(fillTiers)));
+            }
+        }
+        return boxes;
+    }
+
+    private static SlotOccupancy<Stack> occupancy(boolean fillTiers) {
+        return fillTiers
+                ? new SlotOccupancy<>(Stack::isEmpty, stack -> IndicatorFlags.slotFill(stack.count, 64))
+                : new SlotOccupancy<>(Stack::isEmpty);
+    }
+
+    static List<Stack> container(int size, Fill fill, SplittableRandom random) {
+        Stack[] slots = new Stack[size];
+        Arrays.fill(slots, Stack.EMPTY);
+        switch (fill) {
+            case EMPTY -> {}
+            case FIRST -> slots[0] = new Stack(1);
+            case LAST -> slots[size - 1] = new Stack(1);
+            case SPARSE -> {
+                for (int i = 0; i < size; i++) {
+                    if (random.nextInt(8) == 0) {
+                        slots[i] = new Stack(1 + random.nextInt(64));
+                    }
+                }
+            }
+            case FULL -> {
+                for (int i = 0; i < size; i++) {
+                    slots[i] = new Stack(64);
+                }
+            }
+        }
+        // A mutable list like the containers' NonNullList, so occupancy tracking sees one source
+        return new ArrayList<>(Arrays.asList(slots));
+    }
+}
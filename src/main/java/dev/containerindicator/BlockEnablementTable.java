@@ -0,0 +1,176 @@
+package dev.containerindicator;
+
+import dev.containerindicator.core.BlockIdSet;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.AbstractFurnaceBlock;
+import net.minecraft.world.level.block.BarrelBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.ChestBlock;
+import net.minecraft.world.level.block.DispenserBlock;
+import net.minecraft.world.level.block.HopperBlock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable snapshot of which blocks show indicators, indexed by block registry id.
+ *
+ * <p>Tables are compiled on the server thread and published with a single volatile write:
+ * on server start (block tags only resolve once data packs are loaded), on data pack reload,
+ * and after the config is loaded or saved ({@link #rebuild}). The first lookup before a server
+ * has started compiles one lazily, as does a lookup after more blocks were registered, so the
+ * table is never built while other mods are still registering blocks.
+ */
+public final class BlockEnablementTable {
+
+    private static volatile BlockEnablementTable current;
+
+    private final BlockIdSet enabled;
+
+    private BlockEnablementTable(boolean[] enabled) {
+        this.enabled = new BlockIdSet(enabled);
+    }
+
+    public static BlockEnablementTable current() {
+        BlockEnablementTable table = current;
+        // Blocks registered after the last compile (mods initializing after us) need a rebuild
+        if (table == null || table.enabled.capacity() != BuiltInRegistries.BLOCK.size()) {
+            table = compile(ContainerIndicatorConfig.instance());
+            current = table;
+        }
+        return table;
+    }
+
+    /**
+     * The published table, without compiling one; null before the first compile. Use this for
+     * the "before" side of a config change, as the config may already hold the new values.
+     */
+    public static BlockEnablementTable published() {
+        return current;
+    }
+
+    /** Compiles a table from the current config and publishes it. Call on the server thread. */
+    public static BlockEnablementTable rebuild() {
+        BlockEnablementTable table = compile(ContainerIndicatorConfig.instance());
+        current = table;
+        return table;
+    }
+
+    public boolean isEnabled(Block block) {
+        return enabled.contains(BuiltInRegistries.BLOCK.getId(block));
+    }
+
+    /** The enabled blocks by registry id. */
+    public BlockIdSet blockIds() {
+        return enabled;
+    }
+
+    /**
+     * Marks, by block registry id, every block whose enablement differs between the two tables.
+     */
+    public boolean[] diff(BlockEnablementTable other) {
+        return enabled.diff(other.enabled);
+    }
+
+    /** Hash of the enabled set; equal tables have equal fingerprints. */
+    public int fingerprint() {
+        return enabled.fingerprint();
+    }
+
+    public static BlockEnablementTable compile(ContainerIndicatorConfig config) {
+        boolean[] enabled = new boolean[BuiltInRegistries.BLOCK.size()];
+        if (!config.enabled) {
+            return new BlockEnablementTable(enabled);
+        }
+
+        List<BlockMatcher> allow = parseMatchers(config.enabledBlocks);
+        List<BlockMatcher> deny = parseMatchers(config.disabledBlocks);
+
+        for (Block block : BuiltInRegistries.BLOCK) {
+            int id = BuiltInRegistries.BLOCK.getId(block);
+            if (id < 0 || id >= enabled.length) continue;
+
+            boolean value;
+            if (matchesAny(deny, block)) {
+                value = false;
+            } else if (matchesAny(allow, block)) {
+                value = true;
+            } else {
+                value = resolveToggle(block, config);
+            }
+            enabled[id] = value;
+        }
+        return new BlockEnablementTable(enabled);
+    }
+
+    private static boolean resolveToggle(Block block, ContainerIndicatorConfig config) {
+        if (block == Blocks.HOPPER) return config.hopperEnabled;
+        if (block == Blocks.DISPENSER) return config.dispenserEnabled;
+        if (block == Blocks.DROPPER) return config.dropperEnabled;
+        if (block == Blocks.BARREL) return config.barrelEnabled;
+        if (block == Blocks.CRAFTER) return config.crafterEnabled;
+        if (block == Blocks.FURNACE) return config.furnaceEnabled;
+        if (block == Blocks.BLAST_FURNACE) return config.blastFurnaceEnabled;
+        if (block == Blocks.SMOKER) return config.smokerEnabled;
+        if (block == Blocks.DECORATED_POT) return config.decoratedPotEnabled;
+        if (block == Blocks.CHEST) return config.chestEnabled;
+        if (block == Blocks.TRAPPED_CHEST) return config.trappedChestEnabled;
+        if (block == Blocks.COPPER_CHEST || block == Blocks.EXPOSED_COPPER_CHEST
+                || block == Blocks.WEATHERED_COPPER_CHEST || block == Blocks.OXIDIZED_COPPER_CHEST
+                || block == Blocks.WAXED_COPPER_CHEST || block == Blocks.WAXED_EXPOSED_COPPER_CHEST
+                || block == Blocks.WAXED_WEATHERED_COPPER_CHEST || block == Blocks.WAXED_OXIDIZED_COPPER_CHEST)
+            return config.copperChestEnabled;
+
+        // Fallback instanceof checks for modded blocks extending vanilla classes
+        if (block instanceof BarrelBlock) return config.barrelEnabled;
+        if (block instanceof ChestBlock) return config.chestEnabled;
+        if (block instanceof AbstractFurnaceBlock) return config.furnaceEnabled;
+        if (block instanceof DispenserBlock) return config.dispenserEnabled;
+        if (block instanceof HopperBlock) return config.hopperEnabled;
+
+        return true;
+    }
+
+    // --- Allow/deny list entries: "namespace:block" or "#namespace:tag" ---
+
+    private record BlockMatcher(Block block, TagKey<Block> tag) {
+        boolean matches(Block candidate) {
+            return block != null ? block == candidate : candidate.builtInRegistryHolder().is(tag);
+        }
+    }
+
+    private static boolean matchesAny(List<BlockMatcher> matchers, Block block) {
+        for (BlockMatcher matcher : matchers) {
+            if (matcher.matches(block)) return true;
+        }
+        return false;
+    }
+
+    private static List<BlockMatcher> parseMatchers(List<String> entries) {
+        List<BlockMatcher> matchers = new ArrayList<>();
+        if (entries == null) {
+            return matchers;
+        }
+        for (String entry : entries) {
+            if (entry == null || entry.isBlank()) continue;
+            boolean isTag = entry.startsWith("#");
+            Identifier id = Identifier.tryParse(isTag ? entry.substring(1) : entry);
+            if (id == null) {
+                ContainerIndicator.LOGGER.warn("[Handy Indicator] Ignoring invalid block entry '{}' in config", entry);
+                continue;
+            }
+            if (isTag) {
+                matchers.add(new BlockMatcher(null, TagKey.create(Registries.BLOCK, id)));
+            } else if (BuiltInRegistries.BLOCK.containsKey(id)) {
+                matchers.add(new BlockMatcher(BuiltInRegistries.BLOCK.getValue(id), null));
+            } else {
+                ContainerIndicator.LOGGER.warn("[Handy Indicator] Ignoring unknown block '{}' in config", entry);
+            }
+        }
+        return matchers;
+    }
+}
@@ -0,0 +1,90 @@
+package dev.containerindicator;
+
+import it.unimi.dsi.fastutil.ints.Int2ByteMap;
+import it.unimi.dsi.fastutil.ints.Int2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortIterator;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+/**
+ * Server-side indicator flags for {@link SyncMode#CHANNEL}, kept per chunk next to the
+ * indicator index. Flags live only in memory; chunks are refreshed when they load, so
+ * nothing needs to be saved.
+ */
+public final class ChannelIndicatorStore {
+
+    private ChannelIndicatorStore() {}
+
+    public static int get(LevelChunk chunk, BlockPos pos) {
+        Int2ByteOpenHashMap flags = ((IndicatorChunk) chunk).containerindicator$getIndicatorFlags();
+        return flags == null ? 0 : flags.get(ChunkIndicatorIndex.pack(pos));
+    }
+
+    /**
+     * @return true if the flags changed
+     */
+    public static boolean set(LevelChunk chunk, BlockPos pos, int value) {
+        IndicatorChunk indexed = (IndicatorChunk) chunk;
+        Int2ByteOpenHashMap flags = indexed.containerindicator$getIndicatorFlags();
+        int packed = ChunkIndicatorIndex.pack(pos);
+        if (value == 0) {
+            if (flags == null || flags.remove(packed) == 0) {
+                return false;
+            }
+            if (flags.isEmpty()) {
+                indexed.containerindicator$setIndicatorFlags(null);
+            }
+            return true;
+        }
+        if (flags == null) {
+            flags = new Int2ByteOpenHashMap(4);
+            indexed.containerindicator$setIndicatorFlags(flags);
+        }
+        return flags.put(packed, (byte) value) != (byte) value;
+    }
+
+    static void onRemoved(LevelChunk chunk, BlockPos pos) {
+        // Tell tracking clients to drop the overlay of a container that is gone
+        if (set(chunk, pos, 0) && chunk.getLevel() instanceof ServerLevel level) {
+            IndicatorSyncBatcher.markChanged(level, pos);
+        }
+    }
+
+    public static void sendChunk(ServerPlayer player, LevelChunk chunk) {
+        if (SyncMode.usesBlockStates() || !ServerPlayNetworking.canSend(player, IndicatorChunkPayload.TYPE)) {
+            return;
+        }
+        Int2ByteOpenHashMap flags = ((IndicatorChunk) chunk).containerindicator$getIndicatorFlags();
+        if (flags == null) {
+            return;
+        }
+        int[] positions = new int[flags.size()];
+        byte[] values = new byte[flags.size()];
+        int i = 0;
+        for (Int2ByteMap.Entry entry : flags.int2ByteEntrySet()) {
+            positions[i] = entry.getIntKey();
+            values[i] = entry.getByteValue();
+            i++;
+        }
+        ServerPlayNetworking.send(player, new IndicatorChunkPayload(chunk.getPos().toLong(), positions, values));
+    }
+
+    static void sendSection(ServerPlayer player, LevelChunk chunk, SectionPos section, ShortSet positions) {
+        if (!ServerPlayNetworking.canSend(player, IndicatorSectionPayload.TYPE)) {
+            return;
+        }
+        short[] relative = new short[positions.size()];
+        byte[] values = new byte[positions.size()];
+        int i = 0;
+        for (ShortIterator it = positions.iterator(); it.hasNext(); i++) {
+            relative[i] = it.nextShort();
+            values[i] = (byte) get(chunk, section.relativeToBlockPos(relative[i]));
+        }
+        ServerPlayNetworking.send(player, new IndicatorSectionPayload(section.asLong(), relative, values));
+    }
+}
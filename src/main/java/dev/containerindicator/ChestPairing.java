@@ -0,0 +1,81 @@
+package dev.containerindicator;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.ChestBlock;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.ChestBlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.ChestType;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+/**
+ * Cached link from one half of a double chest to the other, so evaluating a chest doesn't
+ * look its partner up in the level every time.
+ *
+ * <p>The link is resolved again when the chest's type or facing changes, or when the
+ * partner block entity was removed. Lookups only read chunks that are already loaded; a
+ * partner in an unloaded chunk is treated as absent until it loads.
+ */
+public final class ChestPairing {
+
+    private ChestBlockEntity partner;
+    private ChestType type;
+    private Direction facing;
+
+    /**
+     * The other half of the double chest {@code self} belongs to, or null if it is a single
+     * chest or the other half isn't loaded.
+     */
+    public ChestBlockEntity partner(ChestBlockEntity self) {
+        BlockState state = self.getBlockState();
+        if (!state.hasProperty(ChestBlock.TYPE) || state.getValue(ChestBlock.TYPE) == ChestType.SINGLE) {
+            partner = null;
+            type = ChestType.SINGLE;
+            return null;
+        }
+        ChestType currentType = state.getValue(ChestBlock.TYPE);
+        Direction currentFacing = state.getValue(ChestBlock.FACING);
+        if (partner != null && currentType == type && currentFacing == facing && !partner.isRemoved()) {
+            return partner;
+        }
+
+        type = currentType;
+        facing = currentFacing;
+        partner = resolve(self, state);
+        if (partner instanceof PairedChest paired) {
+            // Link back so the other half doesn't have to look this one up
+            ChestPairing other = paired.containerindicator$getPairing();
+            other.partner = self;
+            other.type = currentType.getOpposite();
+            other.facing = currentFacing;
+        }
+        return partner;
+    }
+
+    private static ChestBlockEntity resolve(ChestBlockEntity self, BlockState state) {
+        Level level = self.getLevel();
+        if (level == null) {
+            return null;
+        }
+        BlockPos pos = self.getBlockPos().relative(ChestBlock.getConnectedDirection(state));
+        LevelChunk chunk = level.getChunkSource().getChunkNow(
+                SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        if (chunk == null) {
+            return null;
+        }
+        BlockEntity be = chunk.getBlockEntity(pos, LevelChunk.EntityCreationType.CHECK);
+        if (!(be instanceof ChestBlockEntity other)) {
+            return null;
+        }
+        BlockState otherState = other.getBlockState();
+        if (!otherState.hasProperty(ChestBlock.TYPE)
+                || otherState.getValue(ChestBlock.TYPE) != state.getValue(ChestBlock.TYPE).getOpposite()
+                || otherState.getValue(ChestBlock.FACING) != state.getValue(ChestBlock.FACING)) {
+            return null;
+        }
+        return other;
+    }
+}
@@ -0,0 +1,102 @@
+package dev.containerindicator;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.Container;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Per-chunk set of the block entities that carry indicator properties, kept up to date as
+ * block entities are added and removed. Bulk operations (chunk refresh, config
+ * re-evaluation) walk this set instead of every block entity in the chunk.
+ *
+ * <p>Positions are packed chunk-relative into an int; chunks without indicator blocks
+ * keep no set at all.
+ */
+public final class ChunkIndicatorIndex {
+
+    private ChunkIndicatorIndex() {}
+
+    public static boolean isIndicatorEntity(BlockEntity be) {
+        if (!(be instanceof Container)) return false;
+        BlockState state = be.getBlockState();
+        return IndicatorStates.showsItems(state) || IndicatorStates.showsFurnaceSlots(state);
+    }
+
+    public static void onBlockEntitySet(LevelChunk chunk, BlockEntity be) {
+        IndicatorChunk indexed = (IndicatorChunk) chunk;
+        IntOpenHashSet index = indexed.containerindicator$getIndicatorIndex();
+        int packed = pack(be.getBlockPos());
+        if (isIndicatorEntity(be)) {
+            if (index == null) {
+                index = new IntOpenHashSet(4);
+                indexed.containerindicator$setIndicatorIndex(index);
+            }
+            index.add(packed);
+        } else if (index != null) {
+            // Replaced by a block entity that doesn't show indicators
+            remove(indexed, index, packed);
+            ChannelIndicatorStore.onRemoved(chunk, be.getBlockPos());
+        }
+    }
+
+    public static void onBlockEntityRemoved(LevelChunk chunk, BlockPos pos) {
+        IndicatorChunk indexed = (IndicatorChunk) chunk;
+        IntOpenHashSet index = indexed.containerindicator$getIndicatorIndex();
+        if (index != null) {
+            remove(indexed, index, pack(pos));
+            ChannelIndicatorStore.onRemoved(chunk, pos);
+        }
+    }
+
+    public static int size(LevelChunk chunk) {
+        IntOpenHashSet index = ((IndicatorChunk) chunk).containerindicator$getIndicatorIndex();
+        return index == null ? 0 : index.size();
+    }
+
+    public static void forEachIndicatorEntity(LevelChunk chunk, Consumer<BlockEntity> action) {
+        IntOpenHashSet index = ((IndicatorChunk) chunk).containerindicator$getIndicatorIndex();
+        if (index == null || index.isEmpty()) {
+            return;
+        }
+        Map<BlockPos, BlockEntity> blockEntities = chunk.getBlockEntities();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        int baseX = chunk.getPos().getMinBlockX();
+        int baseZ = chunk.getPos().getMinBlockZ();
+        // Copy first: evaluating an entry may replace block entities in this chunk
+        for (int packed : index.toIntArray()) {
+            cursor.set(baseX + unpackX(packed), unpackY(packed), baseZ + unpackZ(packed));
+            BlockEntity be = blockEntities.get(cursor);
+            if (be != null) {
+                action.accept(be);
+            }
+        }
+    }
+
+    private static void remove(IndicatorChunk indexed, IntOpenHashSet index, int packed) {
+        if (index.remove(packed) && index.isEmpty()) {
+            indexed.containerindicator$setIndicatorIndex(null);
+        }
+    }
+
+    static int pack(BlockPos pos) {
+        return (pos.getY() << 8) | ((pos.getZ() & 15) << 4) | (pos.getX() & 15);
+    }
+
+    static int unpackX(int packed) {
+        return packed & 15;
+    }
+
+    static int unpackZ(int packed) {
+        return (packed >> 4) & 15;
+    }
+
+    static int unpackY(int packed) {
+        return packed >> 8;
+    }
+}
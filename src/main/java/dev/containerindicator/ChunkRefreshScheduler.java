@@ -0,0 +1,238 @@
+package dev.containerindicator;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.profiling.Profiler;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Refreshes the indicator state of loaded chunks a few at a time, spending at most a
+ * per-tick time budget that follows server load.
+ *
+ * <p>The budget is a fraction of the headroom between the average tick time and the
+ * target tick length, clamped to the configured minimum and maximum. A busy server gets
+ * the minimum budget; an idle one drains the backlog quickly. At least one chunk is
+ * refreshed per tick so the queue always makes progress.
+ *
+ * <p>Chunks are queued by level and {@link ChunkPos}, so a chunk queued twice is refreshed
+ * once and an unloaded chunk is dropped instead of kept alive. Chunks closest to an online
+ * player are served first; the order is recomputed when it runs out or once a second
+ * while new chunks keep arriving.
+ */
+public final class ChunkRefreshScheduler {
+
+    private static final int REORDER_INTERVAL_TICKS = 20;
+
+    private static final Map<ServerLevel, LongOpenHashSet> pending = new IdentityHashMap<>();
+    private static int pendingCount;
+    private static boolean refreshQueued = false;
+
+    // Pending chunks sorted by distance to the nearest player; entries already refreshed or unloaded are skipped
+    private static final List<QueuedChunk> order = new ArrayList<>();
+    private static int orderIndex;
+    private static boolean orderStale;
+    private static int ticksSinceReorder;
+
+    // Stats for the current backlog, logged once it drains
+    private static long backlogChunks;
+    private static long backlogNanos;
+    private static int backlogTicks;
+
+    private static long lastBudgetNanos;
+    private static long lastTickNanos;
+
+    private ChunkRefreshScheduler() {}
+
+    private record QueuedChunk(ServerLevel level, long pos, long distanceSq) {}
+
+    public static void enqueue(ServerLevel level, LevelChunk chunk) {
+        if (ChunkVerification.isVerified(chunk)) {
+            return; // saved blockstates already match the current settings
+        }
+        if (pending.computeIfAbsent(level, l -> new LongOpenHashSet()).add(chunk.getPos().toLong())) {
+            pendingCount++;
+            orderStale = true;
+        }
+    }
+
+    public static void onChunkUnload(ServerLevel level, LevelChunk chunk) {
+        LongOpenHashSet positions = pending.get(level);
+        if (positions != null && positions.remove(chunk.getPos().toLong())) {
+            pendingCount--;
+        }
+    }
+
+    public static void onLevelUnload(ServerLevel level) {
+        LongOpenHashSet positions = pending.remove(level);
+        if (positions != null) {
+            pendingCount -= positions.size();
+        }
+    }
+
+    public static void tick(MinecraftServer server) {
+        if (!refreshQueued) {
+            // First tick: collect all chunks to refresh
+            refreshQueued = true;
+            for (ServerLevel level : server.getAllLevels()) {
+                level.getChunkSource().chunkMap.forEachReadyToSendChunk(chunk -> enqueue(level, chunk));
+            }
+            if (pendingCount > 0) {
+                ContainerIndicator.LOGGER.info("[Handy Indicator] Refreshing {} chunks...", pendingCount);
+            }
+        }
+
+        boolean reevaluating = ConfigReevaluation.isRunning();
+        if (pendingCount == 0 && !reevaluating) {
+            lastTickNanos = 0;
+            return;
+        }
+
+        ProfilerFiller profiler = Profiler.get();
+        profiler.push("handyIndicatorRefresh");
+        long budget = computeBudgetNanos(server);
+        long start = System.nanoTime();
+        if (pendingCount > 0) {
+            drainRefreshQueue(start, budget);
+        }
+        // Config re-evaluation gets whatever budget is left, but always at least one chunk
+        if (reevaluating) {
+            ConfigReevaluation.process(start, budget);
+        }
+        profiler.pop();
+
+        lastBudgetNanos = budget;
+        lastTickNanos = System.nanoTime() - start;
+        IndicatorMetrics.refreshTick(lastTickNanos);
+    }
+
+    private static void drainRefreshQueue(long start, long budget) {
+        ticksSinceReorder++;
+        if (orderIndex >= order.size() || (orderStale && ticksSinceReorder >= REORDER_INTERVAL_TICKS)) {
+            rebuildOrder();
+        }
+
+        IndicatorJfrEvents.ChunkRefresh event = new IndicatorJfrEvents.ChunkRefresh();
+        event.begin();
+        long elapsed = 0;
+        int refreshed = 0;
+        int containers = 0;
+        while (pendingCount > 0 && (refreshed == 0 || elapsed < budget)) {
+            if (orderIndex >= order.size()) {
+                rebuildOrder();
+            }
+            QueuedChunk next = order.get(orderIndex++);
+            LongOpenHashSet positions = pending.get(next.level());
+            if (positions == null || !positions.remove(next.pos())) {
+                continue; // already refreshed or unloaded since the order was built
+            }
+            pendingCount--;
+            LevelChunk chunk = next.level().getChunkSource()
+                    .getChunkNow(ChunkPos.getX(next.pos()), ChunkPos.getZ(next.pos()));
+            if (chunk != null) {
+                containers += ContainerStateHelper.refreshChunk(chunk);
+                refreshed++;
+            }
+            elapsed = System.nanoTime() - start;
+        }
+
+        if (event.shouldCommit()) {
+            event.chunks = refreshed;
+            event.containers = containers;
+            event.queued = pendingCount;
+            event.commit();
+        }
+
+        backlogChunks += refreshed;
+        backlogNanos += elapsed;
+        backlogTicks++;
+
+        if (pendingCount == 0) {
+            order.clear();
+            orderIndex = 0;
+            ContainerIndicator.LOGGER.debug("[Handy Indicator] Refreshed {} chunks in {} ms of tick time over {} ticks",
+                    backlogChunks, backlogNanos / 1_000_000, backlogTicks);
+            backlogChunks = 0;
+            backlogNanos = 0;
+            backlogTicks = 0;
+        }
+    }
+
+    public static void clear() {
+        refreshQueued = false;
+        pending.clear();
+        pendingCount = 0;
+        order.clear();
+        orderIndex = 0;
+        orderStale = false;
+        backlogChunks = 0;
+        backlogNanos = 0;
+        backlogTicks = 0;
+    }
+
+    public static int queueDepth() {
+        return pendingCount;
+    }
+
+    public static long lastBudgetNanos() {
+        return lastBudgetNanos;
+    }
+
+    public static long lastTickNanos() {
+        return lastTickNanos;
+    }
+
+    private static void rebuildOrder() {
+        order.clear();
+        orderIndex = 0;
+        orderStale = false;
+        ticksSinceReorder = 0;
+        for (Map.Entry<ServerLevel, LongOpenHashSet> entry : pending.entrySet()) {
+            ServerLevel level = entry.getKey();
+            List<ServerPlayer> players = level.players();
+            long[] playerChunks = new long[players.size()];
+            for (int i = 0; i < playerChunks.length; i++) {
+                playerChunks[i] = players.get(i).chunkPosition().toLong();
+            }
+            for (long pos : entry.getValue()) {
+                order.add(new QueuedChunk(level, pos, nearestPlayerDistanceSq(pos, playerChunks)));
+            }
+        }
+        order.sort(Comparator.comparingLong(QueuedChunk::distanceSq));
+    }
+
+    private static long nearestPlayerDistanceSq(long pos, long[] playerChunks) {
+        int x = ChunkPos.getX(pos);
+        int z = ChunkPos.getZ(pos);
+        long best = Long.MAX_VALUE;
+        for (long playerChunk : playerChunks) {
+            long dx = x - ChunkPos.getX(playerChunk);
+            long dz = z - ChunkPos.getZ(playerChunk);
+            best = Math.min(best, dx * dx + dz * dz);
+        }
+        return best;
+    }
+
+    private static long computeBudgetNanos(MinecraftServer server) {
+        ContainerIndicatorConfig config = ContainerIndicatorConfig.instance();
+        long min = Math.max(0, config.refreshMinBudgetMicros) * 1_000L;
+        long max = Math.max(min, config.refreshMaxBudgetMicros * 1_000L);
+
+        long target = server.tickRateManager().nanosecondsPerTick();
+        long headroom = target - server.getAverageTickTimeNanos();
+        if (headroom <= 0) {
+            return min;
+        }
+        long budget = (long) (headroom * config.refreshHeadroomFraction);
+        return Math.clamp(budget, min, max);
+    }
+}
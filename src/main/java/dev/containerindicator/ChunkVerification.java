@@ -0,0 +1,82 @@
+package dev.containerindicator;
+
+import com.mojang.serialization.Codec;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+/**
+ * Persists, per chunk, which indicator settings the chunk's blockstates were last checked
+ * against. Indicator properties are saved with the blockstates and kept current while the
+ * chunk is loaded, so a chunk whose stamp matches the current settings needs no refresh
+ * when it loads again.
+ */
+public final class ChunkVerification {
+
+    // Bump when the way indicator state is derived changes, to force every chunk to be rechecked
+    private static final int FORMAT_VERSION = 1;
+
+    public static final AttachmentType<Integer> VERIFIED_STAMP = AttachmentRegistry.create(
+            Identifier.fromNamespaceAndPath("container_indicator", "verified_stamp"),
+            builder -> builder.persistent(Codec.INT));
+
+    private ChunkVerification() {}
+
+    public static void init() {
+        // Loads the class so the attachment type is registered before any chunk is read
+    }
+
+    public static boolean isVerified(LevelChunk chunk) {
+        if (!SyncMode.usesBlockStates()) {
+            return false; // channel flags are not saved, so every loaded chunk needs a refresh
+        }
+        Integer stamp = chunk.getAttached(VERIFIED_STAMP);
+        return stamp != null && stamp == currentStamp();
+    }
+
+    public static void markVerified(LevelChunk chunk) {
+        if (!SyncMode.usesBlockStates()) {
+            return;
+        }
+        if (chunk.getLevel() instanceof ServerLevel level && FlipDebounce.holdsIn(level, chunk.getPos())) {
+            return; // a held indicator may be saved stale; refresh again on the next load
+        }
+        int stamp = currentStamp();
+        Integer previous = chunk.getAttached(VERIFIED_STAMP);
+        if (previous == null || previous != stamp) {
+            chunk.setAttached(VERIFIED_STAMP, stamp);
+        }
+    }
+
+    /** Forgets that the chunk was checked, so it is refreshed the next time it loads. */
+    public static void invalidate(LevelChunk chunk) {
+        if (chunk.hasAttached(VERIFIED_STAMP)) {
+            chunk.removeAttached(VERIFIED_STAMP);
+        }
+    }
+
+    /**
+     * Moves a chunk's stamp to the current settings after only the changed block types were
+     * re-evaluated. Chunks stamped with anything outside {@code acceptedStamps} were never
+     * fully checked and keep their stamp, so they still get a full refresh.
+     */
+    public static void restamp(LevelChunk chunk, IntSet acceptedStamps) {
+        Integer previous = chunk.getAttached(VERIFIED_STAMP);
+        if (previous != null && acceptedStamps.contains(previous.intValue())) {
+            markVerified(chunk);
+        }
+    }
+
+    public static int stampFor(BlockEnablementTable table) {
+        int stamp = 31 * FORMAT_VERSION + table.fingerprint();
+        // Turning fill tiers on or off changes what every item container's state should be
+        return FillLevels.enabled() ? 31 * stamp + 1 : stamp;
+    }
+
+    private static int currentStamp() {
+        return stampFor(BlockEnablementTable.current());
+    }
+}
@@ -0,0 +1,158 @@
+package dev.containerindicator;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.ArrayDeque;
+
+/**
+ * Re-evaluates loaded containers after a config change, spread over ticks.
+ *
+ * <p>Only block types whose enablement actually changed are revisited, and only through
+ * each chunk's indicator index. Work runs inside {@link ChunkRefreshScheduler}'s per-tick
+ * budget. A change made while a re-evaluation is still running is merged into it.
+ */
+public final class ConfigReevaluation {
+
+    private static Job job;
+
+    private ConfigReevaluation() {}
+
+    private record QueuedChunk(ServerLevel level, long pos) {}
+
+    private static final class Job {
+        final boolean[] changed;
+        final int changedTypes;
+        final IntSet acceptedStamps;
+        final ArrayDeque<QueuedChunk> chunks = new ArrayDeque<>();
+        int total;
+        int done;
+        long nanos;
+        int ticks;
+        int reportedQuarter;
+
+        Job(boolean[] changed, IntSet acceptedStamps) {
+            this.changed = changed;
+            this.acceptedStamps = acceptedStamps;
+            int count = 0;
+            for (boolean c : changed) {
+                if (c) count++;
+            }
+            this.changedTypes = count;
+        }
+    }
+
+    /**
+     * Queues a re-evaluation of every loaded chunk for the blocks whose enablement differs
+     * between {@code before} and {@code after}.
+     *
+     * @return the number of block types that changed
+     */
+    public static int schedule(MinecraftServer server, BlockEnablementTable before, BlockEnablementTable after) {
+        boolean[] changed = before.diff(after);
+        IntSet acceptedStamps = new IntOpenHashSet();
+        acceptedStamps.add(ChunkVerification.stampFor(before));
+        if (job != null) {
+            // Merge with the running job: anything it was going to revisit still needs it
+            for (int id = 0; id < changed.length && id < job.changed.length; id++) {
+                changed[id] |= job.changed[id];
+            }
+            acceptedStamps.addAll(job.acceptedStamps);
+        }
+
+        Job next = new Job(changed, acceptedStamps);
+        if (next.changedTypes == 0) {
+            job = null;
+            return 0;
+        }
+        for (ServerLevel level : server.getAllLevels()) {
+            level.getChunkSource().chunkMap.forEachReadyToSendChunk(
+                    chunk -> next.chunks.add(new QueuedChunk(level, chunk.getPos().toLong())));
+        }
+        next.total = next.chunks.size();
+        job = next;
+        ContainerIndicator.LOGGER.info("[Handy Indicator] Re-evaluating {} chunks for {} changed block types...",
+                next.total, next.changedTypes);
+        return next.changedTypes;
+    }
+
+    public static boolean isRunning() {
+        return job != null;
+    }
+
+    /** Progress of the running job as "done/total", or null if idle. */
+    public static String progress() {
+        Job current = job;
+        return current == null ? null : current.done + "/" + current.total;
+    }
+
+    /**
+     * Processes queued chunks until {@code budget} nanoseconds have passed since
+     * {@code start}, always doing at least one chunk.
+     */
+    static void process(long start, long budget) {
+        Job current = job;
+        IndicatorJfrEvents.ConfigReevaluation event = new IndicatorJfrEvents.ConfigReevaluation();
+        event.begin();
+        long tickStart = System.nanoTime();
+        int processed = 0;
+        int containers = 0;
+        while (!current.chunks.isEmpty() && (processed == 0 || System.nanoTime() - start < budget)) {
+            QueuedChunk next = current.chunks.poll();
+            current.done++;
+            LevelChunk chunk = next.level().getChunkSource()
+                    .getChunkNow(ChunkPos.getX(next.pos()), ChunkPos.getZ(next.pos()));
+            if (chunk == null) {
+                continue; // unloaded since the job started; its stamp makes it refresh on next load
+            }
+            containers += reevaluateChunk(chunk, current);
+            processed++;
+        }
+        current.nanos += System.nanoTime() - tickStart;
+        current.ticks++;
+        if (event.shouldCommit()) {
+            event.chunks = processed;
+            event.containers = containers;
+            event.changedTypes = current.changedTypes;
+            event.done = current.done;
+            event.total = current.total;
+            event.commit();
+        }
+
+        if (current.chunks.isEmpty()) {
+            ContainerIndicator.LOGGER.info("[Handy Indicator] Re-evaluated {} chunks in {} ms of tick time over {} ticks",
+                    current.total, current.nanos / 1_000_000, current.ticks);
+            job = null;
+        } else if (current.total > 0) {
+            int quarter = current.done * 4 / current.total;
+            if (quarter > current.reportedQuarter) {
+                current.reportedQuarter = quarter;
+                ContainerIndicator.LOGGER.info("[Handy Indicator] Re-evaluation {}% ({}/{} chunks)",
+                        quarter * 25, current.done, current.total);
+            }
+        }
+    }
+
+    public static void clear() {
+        job = null;
+    }
+
+    private static int reevaluateChunk(LevelChunk chunk, Job current) {
+        int[] containers = new int[1];
+        ChunkIndicatorIndex.forEachIndicatorEntity(chunk, be -> {
+            int id = BuiltInRegistries.BLOCK.getId(be.getBlockState().getBlock());
+            if (id >= 0 && id < current.changed.length && current.changed[id]) {
+                containers[0]++;
+                IndicatorMetrics.update(IndicatorMetrics.Source.REFRESH);
+                ContainerStateHelper.refreshBlockEntity(be);
+            }
+        });
+        ChunkVerification.restamp(chunk, current.acceptedStamps);
+        return containers[0];
+    }
+}
@@ -1,23 +1,19 @@
 package dev.containerindicator;
 
+import dev.containerindicator.core.IndicatorFlags;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
-import net.minecraft.server.MinecraftServer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.level.block.AbstractFurnaceBlock;
-import net.minecraft.world.level.block.BarrelBlock;
 import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.ChestBlock;
-import net.minecraft.world.level.block.DispenserBlock;
-import net.minecraft.world.level.block.HopperBlock;
 import net.minecraft.world.level.block.state.properties.BooleanProperty;
+import net.minecraft.world.level.block.state.properties.IntegerProperty;
 import net.minecraft.world.level.chunk.LevelChunk;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,48 +23,64 @@ public class ContainerIndicator implements ModInitializer {
     public static final BooleanProperty HAS_ITEMS = BooleanProperty.create("has_items");
     public static final BooleanProperty HAS_INPUT = BooleanProperty.create("has_input");
     public static final BooleanProperty HAS_FUEL = BooleanProperty.create("has_fuel");
-
-    private static final int CHUNKS_PER_TICK = 10;
-    private static final Queue<LevelChunk> pendingRefresh = new ArrayDeque<>();
-    private static boolean refreshQueued = false;
+    public static final IntegerProperty FILL_LEVEL = IntegerProperty.create("fill_level", 0, IndicatorFlags.FILL_TIERS - 1);
 
     @Override
     public void onInitialize() {
         ContainerIndicatorConfig.load();
+        ChunkVerification.init();
+        ContainerIndicatorCommands.register();
+
+        // Indicator sync channel, used when syncMode is "channel"
+        PayloadTypeRegistry.playS2C().register(IndicatorChunkPayload.TYPE, IndicatorChunkPayload.CODEC);
+        PayloadTypeRegistry.playS2C().register(IndicatorSectionPayload.TYPE, IndicatorSectionPayload.CODEC);
 
         // Queue all loaded chunks for gradual refresh after server starts
-        ServerTickEvents.END_SERVER_TICK.register(this::processRefreshQueue);
+        ServerTickEvents.END_SERVER_TICK.register(ChunkRefreshScheduler::tick);
+
+        // Evaluate containers queued this tick (hoppers, in-place stack changes, everything when coalescing)
+        ServerTickEvents.END_SERVER_TICK.register(IndicatorUpdateQueue::flush);
+
+        // Release the held indicators of churning containers whose window ended
+        ServerTickEvents.END_SERVER_TICK.register(FlipDebounce::tick);
+
+        // Send this tick's indicator changes to clients, batched per section and capped per player
+        ServerTickEvents.END_SERVER_TICK.register(IndicatorSyncBatcher::flush);
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) ->
+                IndicatorSyncBatcher.onDisconnect(handler.getPlayer()));
+
+        // Periodic metrics log line (metricsLogIntervalSeconds)
+        ServerTickEvents.END_SERVER_TICK.register(IndicatorMetrics::tick);
 
         // Queue newly loaded chunks for refresh (handles player login/teleport)
         ServerChunkEvents.CHUNK_LOAD.register((ServerLevel level, LevelChunk chunk, boolean isNewChunk) -> {
-            pendingRefresh.add(chunk);
+            ChunkRefreshScheduler.enqueue(level, chunk);
+        });
+        ServerChunkEvents.CHUNK_UNLOAD.register((level, chunk) -> {
+            FlipDebounce.onChunkUnload(level, chunk);
+            ChunkRefreshScheduler.onChunkUnload(level, chunk);
         });
+        ServerWorldEvents.UNLOAD.register((server, level) -> {
+            FlipDebounce.onLevelUnload(level);
+            ChunkRefreshScheduler.onLevelUnload(level);
+        });
+
+        // Block tags are only bound once data packs are loaded
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> BlockEnablementTable.rebuild());
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) ->
+                BlockEnablementTable.rebuild());
 
         // Reset state on server stop (integrated server can restart within same JVM)
         ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
-            refreshQueued = false;
-            pendingRefresh.clear();
+            FlipDebounce.flush();
+            ChunkRefreshScheduler.clear();
+            ConfigReevaluation.clear();
+            IndicatorUpdateQueue.clear();
+            IndicatorSyncBatcher.clear();
+            IndicatorMetrics.reset();
         });
 
-        LOGGER.info("[Handy Indicator] Loaded!");
-    }
-
-    private void processRefreshQueue(MinecraftServer server) {
-        if (!refreshQueued) {
-            // First tick: collect all chunks to refresh
-            refreshQueued = true;
-            for (ServerLevel level : server.getAllLevels()) {
-                level.getChunkSource().chunkMap.forEachReadyToSendChunk(pendingRefresh::add);
-            }
-            if (!pendingRefresh.isEmpty()) {
-                LOGGER.info("[Handy Indicator] Refreshing {} chunks...", pendingRefresh.size());
-            }
-        }
-
-        // Process a batch each tick
-        for (int i = 0; i < CHUNKS_PER_TICK && !pendingRefresh.isEmpty(); i++) {
-            ContainerStateHelper.refreshChunk(pendingRefresh.poll());
-        }
+        LOGGER.info("[Handy Indicator] Loaded! (sync mode: {})", SyncMode.active());
     }
 
     public static int getIndicatorColor() {
@@ -79,34 +91,15 @@ public class ContainerIndicator implements ModInitializer {
         return ContainerIndicatorConfig.instance().fuelColor & 0x00FFFFFF;
     }
 
+    public static int getFillTierColor(int tier) {
+        int[] colors = ContainerIndicatorConfig.instance().fillTierColors;
+        if (colors == null || tier >= colors.length) {
+            return getIndicatorColor();
+        }
+        return colors[tier] & 0x00FFFFFF;
+    }
+
     public static boolean isBlockEnabled(Block block) {
-        ContainerIndicatorConfig config = ContainerIndicatorConfig.instance();
-        if (!config.enabled) return false;
-
-        if (block == Blocks.HOPPER) return config.hopperEnabled;
-        if (block == Blocks.DISPENSER) return config.dispenserEnabled;
-        if (block == Blocks.DROPPER) return config.dropperEnabled;
-        if (block == Blocks.BARREL) return config.barrelEnabled;
-        if (block == Blocks.CRAFTER) return config.crafterEnabled;
-        if (block == Blocks.FURNACE) return config.furnaceEnabled;
-        if (block == Blocks.BLAST_FURNACE) return config.blastFurnaceEnabled;
-        if (block == Blocks.SMOKER) return config.smokerEnabled;
-        if (block == Blocks.DECORATED_POT) return config.decoratedPotEnabled;
-        if (block == Blocks.CHEST) return config.chestEnabled;
-        if (block == Blocks.TRAPPED_CHEST) return config.trappedChestEnabled;
-        if (block == Blocks.COPPER_CHEST || block == Blocks.EXPOSED_COPPER_CHEST
-                || block == Blocks.WEATHERED_COPPER_CHEST || block == Blocks.OXIDIZED_COPPER_CHEST
-                || block == Blocks.WAXED_COPPER_CHEST || block == Blocks.WAXED_EXPOSED_COPPER_CHEST
-                || block == Blocks.WAXED_WEATHERED_COPPER_CHEST || block == Blocks.WAXED_OXIDIZED_COPPER_CHEST)
-            return config.copperChestEnabled;
-
-        // Fallback instanceof checks for modded blocks extending vanilla classes
-        if (block instanceof BarrelBlock) return config.barrelEnabled;
-        if (block instanceof ChestBlock) return config.chestEnabled;
-        if (block instanceof AbstractFurnaceBlock) return config.furnaceEnabled;
-        if (block instanceof DispenserBlock) return config.dispenserEnabled;
-        if (block instanceof HopperBlock) return config.hopperEnabled;
-
-        return true;
+        return BlockEnablementTable.current().isEnabled(block);
     }
 }
@@ -0,0 +1,60 @@
+package dev.containerindicator;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+
+public final class ContainerIndicatorCommands {
+
+    private ContainerIndicatorCommands() {}
+
+    public static void register() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> register(dispatcher));
+    }
+
+    private static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("handyindicator")
+                .requires(Commands.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(Commands.literal("reload")
+                        .executes(ContainerIndicatorCommands::reload))
+                .then(Commands.literal("stats")
+                        .executes(ContainerIndicatorCommands::stats)
+                        .then(Commands.literal("reset")
+                                .executes(ContainerIndicatorCommands::resetStats))));
+    }
+
+    private static int reload(CommandContext<CommandSourceStack> context) {
+        MinecraftServer server = context.getSource().getServer();
+        BlockEnablementTable before = BlockEnablementTable.current();
+        ContainerIndicatorConfig.load();
+        int changedTypes = ConfigReevaluation.schedule(server, before, BlockEnablementTable.rebuild());
+
+        if (changedTypes == 0) {
+            context.getSource().sendSuccess(() -> Component.literal(
+                    "[Handy Indicator] Config reloaded; no block types changed"), true);
+        } else {
+            context.getSource().sendSuccess(() -> Component.literal(
+                    "[Handy Indicator] Config reloaded; re-evaluating " + changedTypes
+                            + " block types across loaded chunks (" + ConfigReevaluation.progress() + ")"), true);
+        }
+        return changedTypes;
+    }
+
+    private static int stats(CommandContext<CommandSourceStack> context) {
+        context.getSource().sendSuccess(() -> Component.literal("[Handy Indicator] Stats"), false);
+        for (String line : IndicatorMetrics.report()) {
+            context.getSource().sendSuccess(() -> Component.literal(line), false);
+        }
+        return 1;
+    }
+
+    private static int resetStats(CommandContext<CommandSourceStack> context) {
+        IndicatorMetrics.reset();
+        context.getSource().sendSuccess(() -> Component.literal("[Handy Indicator] Stats reset"), true);
+        return 1;
+    }
+}
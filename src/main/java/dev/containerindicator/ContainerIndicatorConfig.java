@@ -10,6 +10,8 @@ import java.io.Reader;
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ContainerIndicatorConfig {
 
@@ -18,6 +20,7 @@ public class ContainerIndicatorConfig {
             FabricLoader.getInstance().getConfigDir().resolve("container-indicator.json");
 
     private static ContainerIndicatorConfig instance = new ContainerIndicatorConfig();
+    private static boolean loaded;
 
     public boolean enabled = true;
     public int indicatorColor = 0x6FA9B4;
@@ -35,11 +38,62 @@ public class ContainerIndicatorConfig {
     public boolean trappedChestEnabled = true;
     public boolean copperChestEnabled = true;
 
+    // Extra block ids ("minecraft:barrel") or tags ("#c:chests"); disabledBlocks wins over enabledBlocks
+    public List<String> enabledBlocks = new ArrayList<>();
+    public List<String> disabledBlocks = new ArrayList<>();
+
+    // Chunk refresh time budget per tick: a fraction of the spare tick time, clamped to min/max
+    public int refreshMinBudgetMicros = 250;
+    public int refreshMaxBudgetMicros = 10000;
+    public double refreshHeadroomFraction = 0.25;
+
+    // Defer indicator evaluation to the end of the tick so each container is evaluated once per tick
+    public boolean coalesceUpdates = false;
+
+    // "blockstate" adds indicator properties to container blocks; "channel" keeps blockstates vanilla
+    // and syncs indicators over a custom payload. Read at startup; server and client must match.
+    public String syncMode = "blockstate";
+
+    // Tint item containers by how full they are (four tiers, fillTierColors from emptiest to fullest)
+    // instead of a single indicator color. Read at startup; server and client must match.
+    public boolean fillLevelTiers = false;
+    public int[] fillTierColors = {0x6FB46F, 0xC8C05A, 0xD9914A, 0xC85050};
+
+    // Most indicator changes sent to one player per tick; the rest are sent on following ticks (0 = no cap)
+    public int syncMaxFlipsPerPlayerPerTick = 1024;
+
+    // Containers flipping more than this many times per window keep their indicator and update once
+    // per window instead (0 = never hold back)
+    public int debounceMaxFlipsPerWindow = 4;
+    public int debounceWindowTicks = 20;
+
+    // Cross-check tracked slot occupancy against a full slot scan and log mismatches
+    public boolean debugOccupancyChecks = false;
+
+    // Sections rebuilt per client tick after an indicator color change
+    public int recolorSectionsPerTick = 32;
+
+    // Log indicator update counters every this many seconds (0 = off); /handyindicator stats shows them on demand
+    public int metricsLogIntervalSeconds = 0;
+
+    // Log an estimate of the heap held by overlay models after each resource reload
+    public boolean logOverlayMemory = false;
+
+    // Draw indicators in their own render pass instead of the chunk mesh (applied on resource reload)
+    public boolean separateOverlayPass = false;
+
     public static ContainerIndicatorConfig instance() {
         return instance;
     }
 
+    public static void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
     public static void load() {
+        loaded = true;
         if (Files.exists(CONFIG_PATH)) {
             try (Reader reader = Files.newBufferedReader(CONFIG_PATH)) {
                 instance = GSON.fromJson(reader, ContainerIndicatorConfig.class);
@@ -54,6 +108,7 @@ public class ContainerIndicatorConfig {
         save();
     }
 
+    // Callers publish a new BlockEnablementTable on the server thread afterwards
     public static void save() {
         try {
             Files.createDirectories(CONFIG_PATH.getParent());
@@ -0,0 +1,125 @@
+package dev.containerindicator;
+
+import dev.containerindicator.core.IndicatorFlags;
+import dev.containerindicator.core.SlotOccupancy;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link SlotOccupancy} over a container's item stacks.
+ *
+ * <p>Stack counts can change in place ({@code shrink}, {@code grow}) without going through
+ * {@code setItem}, but vanilla marks the container changed afterwards. Such a mark bumps a
+ * modification counter ({@link #markModified}) and queues the container for the end of the
+ * tick, where {@link #syncModified} compares the slots against the stack and count last seen
+ * in each and re-reads only the slots that differ; the container is only evaluated if one
+ * did. Most marks are just the tail of a tracked {@code setItem}/{@code removeItem}, whose
+ * slot is already up to date, so those are not counted: the mark made inside the call, and
+ * the first one after it in the same tick. Containers nobody touches cost nothing, and the
+ * stacks themselves are never tagged.
+ *
+ * <p>With {@code fillLevelTiers} on it also tracks how full the container is.
+ */
+public final class ContainerOccupancy extends SlotOccupancy<ItemStack> {
+
+    private static final ItemStack[] NO_STACKS = new ItemStack[0];
+    private static final int[] NO_COUNTS = new int[0];
+
+    private final BlockEntity owner;
+
+    // Stack and count each slot held when it was last read
+    private ItemStack[] seenStacks = NO_STACKS;
+    private int[] seenCounts = NO_COUNTS;
+
+    private int modCount;
+    private int syncedModCount;
+
+    // Inside a tracked setItem/removeItem, whose own setChanged comes before its slot is tracked
+    private boolean slotChanging;
+    // Game time of the last tracked slot change no setChanged has followed yet, or -1
+    private long unpairedChangeTick = -1;
+
+    public ContainerOccupancy(BlockEntity owner) {
+        super(ItemStack::isEmpty, FillLevels.enabled()
+                ? stack -> IndicatorFlags.slotFill(stack.getCount(), stack.getMaxStackSize())
+                : null);
+        this.owner = owner;
+    }
+
+    @Override
+    protected void onTracked(int slot, ItemStack stack) {
+        if (slot >= seenStacks.length) {
+            int size = Math.max(slot + 1, seenStacks.length * 2);
+            seenStacks = Arrays.copyOf(seenStacks, size);
+            seenCounts = Arrays.copyOf(seenCounts, size);
+        }
+        seenStacks[slot] = stack;
+        seenCounts[slot] = stack.getCount();
+    }
+
+    /**
+     * Called before a {@code setItem}/{@code removeItem} whose slot is tracked when it
+     * returns, so the {@code setChanged} it makes itself isn't taken for an in-place change.
+     */
+    public void beginSlotChange() {
+        slotChanging = true;
+    }
+
+    @Override
+    public void update(List<ItemStack> items, int slot) {
+        super.update(items, slot);
+        slotChanging = false;
+        unpairedChangeTick = gameTime();
+    }
+
+    /**
+     * Called when the container was marked changed. Unless the mark belongs to a tracked
+     * slot change, queues the container for {@link #syncModified} at the end of the tick.
+     */
+    public void markModified() {
+        if (slotChanging) {
+            return;
+        }
+        boolean followsSlotChange = unpairedChangeTick == gameTime();
+        unpairedChangeTick = -1;
+        if (followsSlotChange) {
+            return;
+        }
+        modCount++;
+        IndicatorUpdateQueue.enqueueModified(owner);
+    }
+
+    /**
+     * Re-reads the slots whose stack or count differs from what was last seen, if the
+     * container was marked changed since the last call.
+     *
+     * @return true if any slot changed in place
+     */
+    public boolean syncModified(List<ItemStack> items) {
+        if (modCount == syncedModCount) {
+            return false;
+        }
+        syncedModCount = modCount;
+        boolean changed = false;
+        for (int i = 0; i < items.size(); i++) {
+            ItemStack stack = items.get(i);
+            if (i < seenStacks.length && seenStacks[i] == stack && seenCounts[i] == stack.getCount()) {
+                continue;
+            }
+            refresh(items, i);
+            onTracked(i, stack);
+            changed = true;
+        }
+        if (changed) {
+            IndicatorMetrics.update(IndicatorMetrics.Source.STACK_CHANGE);
+        }
+        return changed;
+    }
+
+    private long gameTime() {
+        return owner.getLevel() != null ? owner.getLevel().getGameTime() : 0;
+    }
+}
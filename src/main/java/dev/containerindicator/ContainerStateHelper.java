@@ -1,19 +1,18 @@
 package dev.containerindicator;
 
-import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
-import net.minecraft.server.MinecraftServer;
-import net.minecraft.server.level.ServerLevel;
+import dev.containerindicator.core.ChunkRefresh;
+import dev.containerindicator.core.IndicatorFlags;
+import dev.containerindicator.core.SlotOccupancy;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.util.profiling.Profiler;
+import net.minecraft.util.profiling.ProfilerFiller;
 import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.ChestBlock;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.ChestBlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.block.state.properties.ChestType;
-
 import net.minecraft.world.level.chunk.LevelChunk;
 
 import java.util.ArrayList;
@@ -23,200 +22,396 @@ public final class ContainerStateHelper {
 
     private ContainerStateHelper() {}
 
-    public static void refreshChunk(LevelChunk chunk) {
-        for (BlockEntity be : chunk.getBlockEntities().values()) {
-            if (!(be instanceof Container container)) continue;
+    /**
+     * Re-evaluates every indicator block entity in the chunk.
+     *
+     * @return the number of block entities evaluated
+     */
+    public static int refreshChunk(LevelChunk chunk) {
+        List<BlockEntity> entities = new ArrayList<>(ChunkIndicatorIndex.size(chunk));
+        ChunkIndicatorIndex.forEachIndicatorEntity(chunk, be -> {
+            IndicatorMetrics.update(IndicatorMetrics.Source.REFRESH);
+            entities.add(be);
+        });
+        int containers = ChunkRefresh.refresh(entities, BlockEntityAccess.INSTANCE,
+                BlockEnablementTable.current().blockIds(), FillLevels.enabled());
+        ChunkVerification.markVerified(chunk);
+        return containers;
+    }
+
+    // How a chunk refresh sees block entities
+    private enum BlockEntityAccess implements ChunkRefresh.Access<BlockEntity, ItemStack> {
+        INSTANCE;
+
+        @Override
+        public ChunkRefresh.Kind kind(BlockEntity be) {
+            if (be.isRemoved() || !(be instanceof Container)) {
+                return ChunkRefresh.Kind.NONE;
+            }
             BlockState state = be.getBlockState();
-            if (state.hasProperty(ContainerIndicator.HAS_ITEMS)) {
-                if (be instanceof ChestBlockEntity) {
-                    updateChestHasItems(be, container);
-                } else {
-                    updateHasItems(be, container);
-                }
-            } else if (state.hasProperty(ContainerIndicator.HAS_INPUT)) {
+            if (IndicatorStates.showsItems(state)) {
+                return ChunkRefresh.Kind.ITEMS;
+            }
+            return IndicatorStates.showsFurnaceSlots(state) ? ChunkRefresh.Kind.FURNACE : ChunkRefresh.Kind.NONE;
+        }
+
+        @Override
+        public int blockId(BlockEntity be) {
+            return BuiltInRegistries.BLOCK.getId(be.getBlockState().getBlock());
+        }
+
+        @Override
+        public List<ItemStack> items(BlockEntity be) {
+            if (be instanceof OccupancyTracked tracked) {
+                return tracked.containerindicator$getItems();
+            }
+            Container container = (Container) be;
+            List<ItemStack> items = new ArrayList<>(container.getContainerSize());
+            for (int i = 0; i < container.getContainerSize(); i++) {
+                items.add(container.getItem(i));
+            }
+            return items;
+        }
+
+        @Override
+        public SlotOccupancy<ItemStack> occupancy(BlockEntity be) {
+            return be instanceof OccupancyTracked tracked ? tracked.containerindicator$getOccupancy() : null;
+        }
+
+        @Override
+        public BlockEntity partner(BlockEntity be) {
+            return be instanceof PairedChest paired && be instanceof ChestBlockEntity chest
+                    ? paired.containerindicator$getPairing().partner(chest)
+                    : null;
+        }
+
+        @Override
+        public boolean isEmpty(ItemStack stack) {
+            return stack.isEmpty();
+        }
+
+        @Override
+        public int slotFill(ItemStack stack) {
+            return IndicatorFlags.slotFill(stack.getCount(), stack.getMaxStackSize());
+        }
+
+        @Override
+        public void setFlags(BlockEntity be, int flags) {
+            if (write(be, flags)) {
+                IndicatorMetrics.evaluation();
+            }
+        }
+
+        @Override
+        public void setPartnerFlags(BlockEntity partner, int flags) {
+            write(partner, flags);
+        }
+
+        private static boolean write(BlockEntity be, int flags) {
+            if (be.getLevel() == null || be.getLevel().isClientSide()) {
+                return false;
+            }
+            BlockState state = be.getBlockState();
+            if (IndicatorStates.showsItems(state) || IndicatorStates.showsFurnaceSlots(state)) {
+                IndicatorStates.setFlags(be.getLevel(), be.getBlockPos(), state, flags);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Evaluates a block entity's indicator state right away, bypassing update coalescing.
+     */
+    public static void refreshBlockEntity(BlockEntity be) {
+        if (!(be instanceof Container container)) return;
+        if (be instanceof OccupancyTracked tracked) {
+            tracked.containerindicator$getOccupancy().syncModified(tracked.containerindicator$getItems());
+        }
+        BlockState state = be.getBlockState();
+        if (IndicatorStates.showsItems(state)) {
+            if (be instanceof ChestBlockEntity) {
+                evaluateChestHasItems(be, container);
+            } else {
+                evaluateHasItems(be, container);
+            }
+        } else if (IndicatorStates.showsFurnaceSlots(state)) {
+            if (be instanceof OccupancyTracked tracked) {
+                evaluateFurnaceState(be, tracked.containerindicator$getItems());
+            } else {
                 List<ItemStack> items = new ArrayList<>();
                 for (int i = 0; i < container.getContainerSize(); i++) {
                     items.add(container.getItem(i));
                 }
-                updateFurnaceState(be, items);
+                evaluateFurnaceState(be, items);
             }
         }
     }
 
-    public static void refreshAllContainers(MinecraftServer server) {
-        for (ServerLevel level : server.getAllLevels()) {
-            level.getChunkSource().chunkMap.forEachReadyToSendChunk(
-                    ContainerStateHelper::refreshChunk
-            );
+    /**
+     * Evaluates a container marked changed only if {@link ContainerOccupancy#syncModified}
+     * finds a stack that changed in place.
+     */
+    static void refreshIfModified(BlockEntity be) {
+        if (be instanceof OccupancyTracked tracked
+                && tracked.containerindicator$getOccupancy().syncModified(tracked.containerindicator$getItems())) {
+            refreshBlockEntity(be);
         }
     }
 
+    // The update* entry points are what the container mixins call; each runs in its own profiler section
+
     public static void updateHasItems(BlockEntity entity, Container container) {
-        if (entity.getLevel() == null || entity.getLevel().isClientSide()) {
+        if (IndicatorUpdateQueue.defer(entity)) {
             return;
         }
+        ProfilerFiller profiler = Profiler.get();
+        profiler.push("handyIndicatorUpdate");
+        evaluateHasItems(entity, container);
+        profiler.pop();
+    }
 
-        BlockState state = entity.getBlockState();
-        if (!state.hasProperty(ContainerIndicator.HAS_ITEMS)) {
+    public static void updateHasItems(BlockEntity entity, List<ItemStack> inventory) {
+        if (IndicatorUpdateQueue.defer(entity)) {
             return;
         }
+        ProfilerFiller profiler = Profiler.get();
+        profiler.push("handyIndicatorUpdate");
+        evaluateHasItems(entity, inventory);
+        profiler.pop();
+    }
 
-        Block block = state.getBlock();
-        boolean hasItems = false;
+    public static void updateFurnaceState(BlockEntity entity, List<ItemStack> items) {
+        if (IndicatorUpdateQueue.defer(entity)) {
+            return;
+        }
+        ProfilerFiller profiler = Profiler.get();
+        profiler.push("handyIndicatorFurnace");
+        evaluateFurnaceState(entity, items);
+        profiler.pop();
+    }
 
-        if (ContainerIndicator.isBlockEnabled(block)) {
-            for (int i = 0; i < container.getContainerSize(); i++) {
-                if (!container.getItem(i).isEmpty()) {
-                    hasItems = true;
-                    break;
-                }
-            }
+    public static void updateChestHasItems(BlockEntity entity, Container container) {
+        if (IndicatorUpdateQueue.defer(entity)) {
+            return;
         }
+        ProfilerFiller profiler = Profiler.get();
+        profiler.push("handyIndicatorChest");
+        evaluateChestHasItems(entity, container);
+        profiler.pop();
+    }
 
-        boolean currentValue = state.getValue(ContainerIndicator.HAS_ITEMS);
-        if (currentValue != hasItems) {
-            entity.getLevel().setBlock(
-                    entity.getBlockPos(),
-                    state.setValue(ContainerIndicator.HAS_ITEMS, hasItems),
-                    Block.UPDATE_CLIENTS
-            );
+    /**
+     * Called whenever a block entity is marked changed. Tracked containers count the change
+     * (see {@link ContainerOccupancy#markModified}), which catches stacks changed in place.
+     */
+    public static void onContainerChanged(BlockEntity be) {
+        if (!(be instanceof OccupancyTracked tracked)) {
+            return;
         }
+        Level level = be.getLevel();
+        BlockState state = be.getBlockState();
+        if (level == null || level.isClientSide()
+                || !(IndicatorStates.showsItems(state) || IndicatorStates.showsFurnaceSlots(state))) {
+            return;
+        }
+        tracked.containerindicator$getOccupancy().markModified();
     }
 
-    public static void updateFurnaceState(BlockEntity entity, List<ItemStack> items) {
+    /** Called before a {@code setItem}/{@code removeItem} that ends in {@link #trackSlot}. */
+    public static void beginSlotChange(BlockEntity entity) {
+        if (entity instanceof OccupancyTracked tracked) {
+            tracked.containerindicator$getOccupancy().beginSlotChange();
+        }
+    }
+
+    public static void trackSlot(BlockEntity entity, List<ItemStack> items, int slot) {
+        if (entity instanceof OccupancyTracked tracked) {
+            tracked.containerindicator$getOccupancy().update(items, slot);
+        }
+    }
+
+    public static void rebuildOccupancy(BlockEntity entity, List<ItemStack> items) {
+        if (entity instanceof OccupancyTracked tracked) {
+            tracked.containerindicator$getOccupancy().rebuild(items);
+        }
+    }
+
+    private static void evaluateHasItems(BlockEntity entity, Container container) {
         if (entity.getLevel() == null || entity.getLevel().isClientSide()) {
             return;
         }
+        IndicatorMetrics.evaluation();
 
         BlockState state = entity.getBlockState();
-        if (!state.hasProperty(ContainerIndicator.HAS_INPUT) || !state.hasProperty(ContainerIndicator.HAS_FUEL)) {
+        if (!IndicatorStates.showsItems(state)) {
             return;
         }
 
         Block block = state.getBlock();
-        boolean hasInput = false;
-        boolean hasFuel = false;
+        boolean hasItems = false;
 
         if (ContainerIndicator.isBlockEnabled(block)) {
-            hasInput = items.size() > 0 && !items.get(0).isEmpty();
-            hasFuel = items.size() > 1 && !items.get(1).isEmpty();
+            hasItems = containsItems(entity, container);
         }
 
-        boolean currentInput = state.getValue(ContainerIndicator.HAS_INPUT);
-        boolean currentFuel = state.getValue(ContainerIndicator.HAS_FUEL);
-
-        if (currentInput != hasInput || currentFuel != hasFuel) {
-            entity.getLevel().setBlock(
-                    entity.getBlockPos(),
-                    state.setValue(ContainerIndicator.HAS_INPUT, hasInput)
-                         .setValue(ContainerIndicator.HAS_FUEL, hasFuel),
-                    Block.UPDATE_CLIENTS
-            );
+        int flags = IndicatorFlags.items(hasItems);
+        if (hasItems && FillLevels.enabled()) {
+            flags = IndicatorFlags.withFillTier(flags, fillTier(entity));
         }
+        IndicatorStates.setFlags(entity.getLevel(), entity.getBlockPos(), state, flags);
     }
 
-    public static void updateChestHasItems(BlockEntity entity, Container container) {
+    private static void evaluateHasItems(BlockEntity entity, List<ItemStack> inventory) {
         if (entity.getLevel() == null || entity.getLevel().isClientSide()) {
             return;
         }
+        IndicatorMetrics.evaluation();
 
         BlockState state = entity.getBlockState();
-        if (!state.hasProperty(ContainerIndicator.HAS_ITEMS)) {
+        if (!IndicatorStates.showsItems(state)) {
             return;
         }
 
         Block block = state.getBlock();
-        boolean thisHasItems = false;
+        boolean hasItems = false;
 
         if (ContainerIndicator.isBlockEnabled(block)) {
-            for (int i = 0; i < container.getContainerSize(); i++) {
-                if (!container.getItem(i).isEmpty()) {
-                    thisHasItems = true;
-                    break;
-                }
-            }
+            hasItems = containsItems(entity, inventory);
         }
 
-        // For double chests, check the neighbor half too
-        boolean unified = thisHasItems;
-        ChestType type = state.getValue(ChestBlock.TYPE);
-        if (!unified && type != ChestType.SINGLE && ContainerIndicator.isBlockEnabled(block)) {
-            Direction neighborDir = type == ChestType.LEFT
-                    ? state.getValue(ChestBlock.FACING).getClockWise()
-                    : state.getValue(ChestBlock.FACING).getCounterClockWise();
-            BlockPos neighborPos = entity.getBlockPos().relative(neighborDir);
-            Level level = entity.getLevel();
-            BlockEntity neighborEntity = level.getBlockEntity(neighborPos);
-            if (neighborEntity instanceof ChestBlockEntity neighborChest) {
-                for (int i = 0; i < neighborChest.getContainerSize(); i++) {
-                    if (!neighborChest.getItem(i).isEmpty()) {
-                        unified = true;
-                        break;
-                    }
-                }
-            }
+        int flags = IndicatorFlags.items(hasItems);
+        if (hasItems && FillLevels.enabled()) {
+            flags = IndicatorFlags.withFillTier(flags, fillTier(entity));
         }
+        IndicatorStates.setFlags(entity.getLevel(), entity.getBlockPos(), state, flags);
+    }
 
-        // Update this half
-        boolean currentValue = state.getValue(ContainerIndicator.HAS_ITEMS);
-        if (currentValue != unified) {
-            entity.getLevel().setBlock(
-                    entity.getBlockPos(),
-                    state.setValue(ContainerIndicator.HAS_ITEMS, unified),
-                    Block.UPDATE_CLIENTS
-            );
-        }
-
-        // Update neighbor half to match
-        if (type != ChestType.SINGLE) {
-            Direction neighborDir = type == ChestType.LEFT
-                    ? state.getValue(ChestBlock.FACING).getClockWise()
-                    : state.getValue(ChestBlock.FACING).getCounterClockWise();
-            BlockPos neighborPos = entity.getBlockPos().relative(neighborDir);
-            Level level = entity.getLevel();
-            BlockState neighborState = level.getBlockState(neighborPos);
-            if (neighborState.hasProperty(ContainerIndicator.HAS_ITEMS)) {
-                boolean neighborCurrent = neighborState.getValue(ContainerIndicator.HAS_ITEMS);
-                if (neighborCurrent != unified) {
-                    level.setBlock(
-                            neighborPos,
-                            neighborState.setValue(ContainerIndicator.HAS_ITEMS, unified),
-                            Block.UPDATE_CLIENTS
-                    );
-                }
-            }
+    private static void evaluateFurnaceState(BlockEntity entity, List<ItemStack> items) {
+        if (entity.getLevel() == null || entity.getLevel().isClientSide()) {
+            return;
+        }
+        IndicatorMetrics.evaluation();
+
+        BlockState state = entity.getBlockState();
+        if (!IndicatorStates.showsFurnaceSlots(state)) {
+            return;
+        }
+
+        int flags = 0;
+        if (ContainerIndicator.isBlockEnabled(state.getBlock())) {
+            IndicatorMetrics.slotsScanned(Math.min(items.size(), 2));
+            flags = IndicatorFlags.furnace(items, ItemStack::isEmpty);
         }
+
+        IndicatorStates.setFlags(entity.getLevel(), entity.getBlockPos(), state, flags);
     }
 
-    public static void updateHasItems(BlockEntity entity, List<ItemStack> inventory) {
+    private static void evaluateChestHasItems(BlockEntity entity, Container container) {
         if (entity.getLevel() == null || entity.getLevel().isClientSide()) {
             return;
         }
+        IndicatorMetrics.evaluation();
 
         BlockState state = entity.getBlockState();
-        if (!state.hasProperty(ContainerIndicator.HAS_ITEMS)) {
+        if (!IndicatorStates.showsItems(state)) {
             return;
         }
 
-        Block block = state.getBlock();
-        boolean hasItems = false;
+        boolean enabled = ContainerIndicator.isBlockEnabled(state.getBlock());
+        boolean thisHasItems = enabled && containsItems(entity, container);
 
-        if (ContainerIndicator.isBlockEnabled(block)) {
-            for (ItemStack stack : inventory) {
-                if (!stack.isEmpty()) {
-                    hasItems = true;
-                    break;
-                }
+        // For double chests, the cached other half (only if its chunk is loaded)
+        ChestBlockEntity partner = entity instanceof PairedChest paired && entity instanceof ChestBlockEntity chest
+                ? paired.containerindicator$getPairing().partner(chest)
+                : null;
+        boolean partnerHasItems = !thisHasItems && enabled && partner != null && containsItems(partner, partner);
+
+        // Update this half
+        int flags = IndicatorFlags.chest(thisHasItems, partnerHasItems);
+        if (flags != 0 && FillLevels.enabled()) {
+            flags = IndicatorFlags.withFillTier(flags, fillTier(entity));
+        }
+        IndicatorStates.setFlags(entity.getLevel(), entity.getBlockPos(), state, flags);
+
+        // Update the other half to match
+        if (partner != null) {
+            BlockState partnerState = partner.getBlockState();
+            if (IndicatorStates.showsItems(partnerState)) {
+                IndicatorStates.setFlags(entity.getLevel(), partner.getBlockPos(), partnerState, flags);
             }
         }
+    }
 
-        boolean currentValue = state.getValue(ContainerIndicator.HAS_ITEMS);
-        if (currentValue != hasItems) {
-            entity.getLevel().setBlock(
-                    entity.getBlockPos(),
-                    state.setValue(ContainerIndicator.HAS_ITEMS, hasItems),
-                    Block.UPDATE_CLIENTS
-            );
+    /**
+     * Fill tier of an item container, counting both halves of a double chest. Tracked
+     * containers answer from their running fill sum; others are scanned.
+     */
+    private static int fillTier(BlockEntity entity) {
+        long fill = fill(entity);
+        int slots = entity instanceof Container container ? container.getContainerSize() : 0;
+        ChestBlockEntity partner = entity instanceof PairedChest paired && entity instanceof ChestBlockEntity chest
+                ? paired.containerindicator$getPairing().partner(chest)
+                : null;
+        if (partner != null) {
+            fill += fill(partner);
+            slots += partner.getContainerSize();
+        }
+        return IndicatorFlags.fillTier(fill, slots);
+    }
+
+    private static long fill(BlockEntity entity) {
+        if (entity instanceof OccupancyTracked tracked) {
+            return tracked.containerindicator$getOccupancy().fill(tracked.containerindicator$getItems());
+        }
+        if (!(entity instanceof Container container)) {
+            return 0;
         }
+        long fill = 0;
+        for (int i = 0; i < container.getContainerSize(); i++) {
+            ItemStack stack = container.getItem(i);
+            fill += IndicatorFlags.slotFill(stack.getCount(), stack.getMaxStackSize());
+        }
+        IndicatorMetrics.slotsScanned(container.getContainerSize());
+        return fill;
+    }
+
+    private static boolean containsItems(BlockEntity entity, Container container) {
+        if (entity instanceof OccupancyTracked tracked) {
+            return containsItems(entity, tracked.containerindicator$getItems());
+        }
+        for (int i = 0; i < container.getContainerSize(); i++) {
+            if (!container.getItem(i).isEmpty()) {
+                IndicatorMetrics.slotsScanned(i + 1);
+                return true;
+            }
+        }
+        IndicatorMetrics.slotsScanned(container.getContainerSize());
+        return false;
+    }
+
+    private static boolean containsItems(BlockEntity entity, List<ItemStack> items) {
+        if (!(entity instanceof OccupancyTracked tracked)) {
+            return scanForItems(items);
+        }
+
+        ContainerOccupancy occupancy = tracked.containerindicator$getOccupancy();
+        boolean hasItems = occupancy.hasItems(items);
+        if (ContainerIndicatorConfig.instance().debugOccupancyChecks) {
+            boolean scanned = scanForItems(items);
+            if (scanned != hasItems) {
+                ContainerIndicator.LOGGER.warn("[Handy Indicator] Occupancy mismatch at {} ({}): tracked={}, scanned={}",
+                        entity.getBlockPos(), entity.getBlockState().getBlock(), hasItems, scanned);
+                occupancy.rebuild(items);
+                return scanned;
+            }
+        }
+        return hasItems;
+    }
+
+    private static boolean scanForItems(List<ItemStack> items) {
+        int first = IndicatorFlags.firstOccupied(items, ItemStack::isEmpty);
+        IndicatorMetrics.slotsScanned(first < 0 ? items.size() : first + 1);
+        return first >= 0;
     }
 }
@@ -0,0 +1,34 @@
+package dev.containerindicator;
+
+/**
+ * Optional fill-level tiers for item containers ({@code fillLevelTiers}): instead of a single
+ * "has items" tint, the indicator shows one of {@link dev.containerindicator.core.IndicatorFlags#FILL_TIERS}
+ * tints by how full the container is.
+ *
+ * <p>In {@link SyncMode#BLOCKSTATE} the tier is a {@code fill_level} property, so like the sync
+ * mode the setting is read once while blocks are being constructed and server and client must
+ * match. In {@link SyncMode#CHANNEL} the tier travels in the indicator flags.
+ */
+public final class FillLevels {
+
+    private FillLevels() {}
+
+    private static final class Holder {
+        static final boolean ENABLED = resolve();
+    }
+
+    public static boolean enabled() {
+        return Holder.ENABLED;
+    }
+
+    /** Whether item container blocks carry the {@code fill_level} property. */
+    public static boolean usesBlockStates() {
+        return enabled() && SyncMode.usesBlockStates();
+    }
+
+    private static boolean resolve() {
+        // Blocks are bootstrapped before mod initializers run, so the config may not be loaded yet
+        ContainerIndicatorConfig.ensureLoaded();
+        return ContainerIndicatorConfig.instance().fillLevelTiers;
+    }
+}
@@ -0,0 +1,188 @@
+package dev.containerindicator;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Holds back indicator flips of containers that change faster than anyone can read, such as
+ * a hopper feeding a furnace or a dropper in a clock.
+ *
+ * <p>Every flip is counted per position over a window of {@code debounceWindowTicks}. A
+ * container that flips more than {@code debounceMaxFlipsPerWindow} times within a window
+ * keeps its current indicator; the latest value is remembered and written once when the
+ * window ends. A container that gets through a whole window under the limit is forgotten,
+ * so containers that change rarely always update immediately.
+ *
+ * <p>A chunk may be saved (autosave, or on unload, which saves before the unload event) while
+ * one of its containers is held, so the saved indicator can be stale. Holding a position
+ * therefore clears its chunk's {@link ChunkVerification} stamp, and a chunk is not stamped
+ * again while anything in it is held; the next load refreshes it. Held values are also
+ * written when the server stops.
+ */
+public final class FlipDebounce {
+
+    private static final int NONE = -1;
+
+    private static final Map<ServerLevel, Long2ObjectOpenHashMap<Churn>> tracked = new IdentityHashMap<>();
+    // Number of positions with a held value, per chunk
+    private static final Map<ServerLevel, Long2IntOpenHashMap> heldPerChunk = new IdentityHashMap<>();
+
+    private FlipDebounce() {}
+
+    private static final class Churn {
+        long windowStart;
+        int flips;
+        boolean holding;
+        int pending = NONE;
+    }
+
+    /**
+     * Records a change of {@code pos}'s indicator from {@code current} to {@code flags}.
+     *
+     * @return true if the write should be held back
+     */
+    static boolean hold(ServerLevel level, BlockPos pos, int current, int flags) {
+        ContainerIndicatorConfig config = ContainerIndicatorConfig.instance();
+        if (config.debounceMaxFlipsPerWindow <= 0) {
+            return false;
+        }
+        Long2ObjectOpenHashMap<Churn> churns = tracked.get(level);
+        Churn churn = churns == null ? null : churns.get(pos.asLong());
+        if (current == flags) {
+            if (churn != null) {
+                setPending(level, pos.asLong(), churn, NONE); // settled back on the shown value
+            }
+            return false;
+        }
+        if (churn == null) {
+            churn = new Churn();
+            churn.windowStart = level.getGameTime();
+            tracked.computeIfAbsent(level, l -> new Long2ObjectOpenHashMap<>()).put(pos.asLong(), churn);
+        }
+        churn.flips++;
+        if (!churn.holding && churn.flips > config.debounceMaxFlipsPerWindow) {
+            churn.holding = true;
+        }
+        if (churn.holding) {
+            setPending(level, pos.asLong(), churn, flags);
+            // The shown value is now stale; make sure a save of this chunk gets rechecked on load
+            LevelChunk chunk = level.getChunkSource().getChunkNow(
+                    SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+            if (chunk != null) {
+                ChunkVerification.invalidate(chunk);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /** Whether any container in the chunk currently has a held indicator value. */
+    static boolean holdsIn(ServerLevel level, ChunkPos chunkPos) {
+        Long2IntOpenHashMap held = heldPerChunk.get(level);
+        return held != null && held.containsKey(chunkPos.toLong());
+    }
+
+    private static void setPending(ServerLevel level, long pos, Churn churn, int flags) {
+        boolean wasHeld = churn.pending != NONE;
+        churn.pending = flags;
+        boolean held = flags != NONE;
+        if (wasHeld == held) {
+            return;
+        }
+        long chunkPos = ChunkPos.asLong(BlockPos.of(pos));
+        Long2IntOpenHashMap counts = heldPerChunk.computeIfAbsent(level, l -> new Long2IntOpenHashMap());
+        if (counts.addTo(chunkPos, held ? 1 : -1) == 1 && !held) {
+            counts.remove(chunkPos);
+        }
+    }
+
+    public static void tick(MinecraftServer server) {
+        if (tracked.isEmpty()) {
+            return;
+        }
+        ContainerIndicatorConfig config = ContainerIndicatorConfig.instance();
+        long window = Math.max(1, config.debounceWindowTicks);
+        for (Map.Entry<ServerLevel, Long2ObjectOpenHashMap<Churn>> entry : tracked.entrySet()) {
+            ServerLevel level = entry.getKey();
+            long now = level.getGameTime();
+            ObjectIterator<Long2ObjectMap.Entry<Churn>> it = entry.getValue().long2ObjectEntrySet().fastIterator();
+            while (it.hasNext()) {
+                Long2ObjectMap.Entry<Churn> next = it.next();
+                Churn churn = next.getValue();
+                if (now - churn.windowStart < window) {
+                    continue;
+                }
+                boolean churning = churn.flips > config.debounceMaxFlipsPerWindow;
+                release(level, next.getLongKey(), churn);
+                if (!churning) {
+                    it.remove(); // calm for a whole window
+                } else {
+                    // Still churning: stay held for another window
+                    churn.holding = true;
+                    churn.windowStart = now;
+                    churn.flips = 0;
+                }
+            }
+        }
+        tracked.values().removeIf(Long2ObjectOpenHashMap::isEmpty);
+        heldPerChunk.values().removeIf(Long2IntOpenHashMap::isEmpty);
+    }
+
+    public static void onChunkUnload(ServerLevel level, LevelChunk chunk) {
+        Long2ObjectOpenHashMap<Churn> churns = tracked.get(level);
+        if (churns == null) {
+            return;
+        }
+        long chunkPos = chunk.getPos().toLong();
+        ObjectIterator<Long2ObjectMap.Entry<Churn>> it = churns.long2ObjectEntrySet().fastIterator();
+        while (it.hasNext()) {
+            Long2ObjectMap.Entry<Churn> entry = it.next();
+            if (ChunkPos.asLong(BlockPos.of(entry.getLongKey())) == chunkPos) {
+                release(level, entry.getLongKey(), entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    public static void onLevelUnload(ServerLevel level) {
+        tracked.remove(level);
+        heldPerChunk.remove(level);
+    }
+
+    /** Writes every held value, then forgets all containers. */
+    public static void flush() {
+        for (Map.Entry<ServerLevel, Long2ObjectOpenHashMap<Churn>> entry : tracked.entrySet()) {
+            for (Long2ObjectMap.Entry<Churn> churn : entry.getValue().long2ObjectEntrySet()) {
+                release(entry.getKey(), churn.getLongKey(), churn.getValue());
+            }
+        }
+        tracked.clear();
+        heldPerChunk.clear();
+    }
+
+    private static void release(ServerLevel level, long packedPos, Churn churn) {
+        int pending = churn.pending;
+        setPending(level, packedPos, churn, NONE);
+        churn.holding = false;
+        BlockPos pos = BlockPos.of(packedPos);
+        if (pending == NONE || !level.isLoaded(pos)) {
+            return;
+        }
+        BlockState state = level.getBlockState(pos);
+        if (IndicatorStates.showsItems(state) || IndicatorStates.showsFurnaceSlots(state)) {
+            IndicatorStates.writeFlags(level, pos, state, pending);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package dev.containerindicator;
+
+import it.unimi.dsi.fastutil.ints.Int2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+
+/**
+ * Implemented on {@code LevelChunk} by {@code LevelChunkMixin}.
+ */
+public interface IndicatorChunk {
+
+    /** Packed positions of indicator block entities, or null if the chunk has none. */
+    IntOpenHashSet containerindicator$getIndicatorIndex();
+
+    void containerindicator$setIndicatorIndex(IntOpenHashSet index);
+
+    /** Non-zero indicator flags by packed position in {@link SyncMode#CHANNEL}, or null if none. */
+    Int2ByteOpenHashMap containerindicator$getIndicatorFlags();
+
+    void containerindicator$setIndicatorFlags(Int2ByteOpenHashMap flags);
+}
@@ -0,0 +1,34 @@
+package dev.containerindicator;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.Identifier;
+
+/**
+ * All non-zero indicator flags of one chunk, sent right after the chunk itself in
+ * {@link SyncMode#CHANNEL}. Positions are packed chunk-relative as in {@link ChunkIndicatorIndex}.
+ */
+public record IndicatorChunkPayload(long chunkPos, int[] positions, byte[] flags)
+        implements CustomPacketPayload {
+
+    public static final Type<IndicatorChunkPayload> TYPE = new Type<>(
+            Identifier.fromNamespaceAndPath("container_indicator", "chunk"));
+    public static final StreamCodec<FriendlyByteBuf, IndicatorChunkPayload> CODEC =
+            CustomPacketPayload.codec(IndicatorChunkPayload::write, IndicatorChunkPayload::new);
+
+    private IndicatorChunkPayload(FriendlyByteBuf buf) {
+        this(buf.readLong(), buf.readVarIntArray(), buf.readByteArray());
+    }
+
+    private void write(FriendlyByteBuf buf) {
+        buf.writeLong(chunkPos);
+        buf.writeVarIntArray(positions);
+        buf.writeByteArray(flags);
+    }
+
+    @Override
+    public Type<IndicatorChunkPayload> type() {
+        return TYPE;
+    }
+}
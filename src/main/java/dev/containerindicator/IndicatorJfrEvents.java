@@ -0,0 +1,76 @@
+package dev.containerindicator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR events for the mod's batched work, so it shows up as its own slices in a recording
+ * instead of disappearing into vanilla tick frames.
+ *
+ * <p>All events are disabled by default. Enable them in the recording settings, e.g.
+ * {@code jfr configure +dev.containerindicator.ChunkRefresh#enabled=true}, or with
+ * {@code -XX:StartFlightRecording:settings=<file>.jfc}.
+ */
+public final class IndicatorJfrEvents {
+
+    private IndicatorJfrEvents() {}
+
+    @Name("dev.containerindicator.ChunkRefresh")
+    @Label("Indicator Chunk Refresh")
+    @Description("One tick's batch of chunk indicator refreshes")
+    @Category({"Handy Indicator"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class ChunkRefresh extends Event {
+        @Label("Chunks")
+        public int chunks;
+
+        @Label("Containers")
+        public int containers;
+
+        @Label("Chunks Still Queued")
+        public int queued;
+    }
+
+    @Name("dev.containerindicator.ConfigReevaluation")
+    @Label("Indicator Config Re-evaluation")
+    @Description("One tick's batch of a config-triggered re-evaluation of loaded chunks")
+    @Category({"Handy Indicator"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class ConfigReevaluation extends Event {
+        @Label("Chunks")
+        public int chunks;
+
+        @Label("Containers")
+        public int containers;
+
+        @Label("Changed Block Types")
+        public int changedTypes;
+
+        @Label("Chunks Done")
+        public int done;
+
+        @Label("Chunks Total")
+        public int total;
+    }
+
+    @Name("dev.containerindicator.OverlayBake")
+    @Label("Indicator Overlay Bake")
+    @Description("Installing indicator overlay models during a resource reload")
+    @Category({"Handy Indicator"})
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class OverlayBake extends Event {
+        @Label("States Visited")
+        public int visited;
+
+        @Label("States Wrapped")
+        public int wrapped;
+    }
+}
@@ -0,0 +1,174 @@
+package dev.containerindicator;
+
+import net.minecraft.server.MinecraftServer;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for what the mod does at runtime, shown by {@code /handyindicator stats} and
+ * logged every {@code metricsLogIntervalSeconds} when that is set.
+ *
+ * <p>Counters are {@link LongAdder}s, which stripe contended increments across cells, so
+ * counting from several threads adds no shared-cache-line contention. Totals run from server
+ * start; the periodic log line reports the change since the previous line.
+ */
+public final class IndicatorMetrics {
+
+    /** What triggered an indicator update. */
+    public enum Source {
+        SET_ITEM("setItem"),
+        REMOVE_ITEM("removeItem"),
+        STACK_CHANGE("in-place stack change"),
+        LOAD("load"),
+        REFRESH("refresh");
+
+        private final String label;
+
+        Source(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final Source[] SOURCES = Source.values();
+    private static final LongAdder[] updates = new LongAdder[SOURCES.length];
+
+    static {
+        for (int i = 0; i < updates.length; i++) {
+            updates[i] = new LongAdder();
+        }
+    }
+
+    private static final LongAdder evaluations = new LongAdder();
+    private static final LongAdder slotsScanned = new LongAdder();
+    private static final LongAdder setBlockCalls = new LongAdder();
+    private static final LongAdder flipsSkipped = new LongAdder();
+    private static final LongAdder refreshNanos = new LongAdder();
+    private static final LongAdder refreshTicks = new LongAdder();
+
+    // Totals at the previous periodic log line
+    private static long[] lastLogged;
+    private static int ticksSinceLog;
+
+    private IndicatorMetrics() {}
+
+    public static void update(Source source) {
+        updates[source.ordinal()].increment();
+    }
+
+    static void evaluation() {
+        evaluations.increment();
+    }
+
+    /** Container evaluations since server start (or the last reset). */
+    public static long evaluations() {
+        return evaluations.sum();
+    }
+
+    static void slotsScanned(int slots) {
+        slotsScanned.add(slots);
+    }
+
+    static void setBlock() {
+        setBlockCalls.increment();
+    }
+
+    static void flipSkipped() {
+        flipsSkipped.increment();
+    }
+
+    static void refreshTick(long nanos) {
+        refreshNanos.add(nanos);
+        refreshTicks.increment();
+    }
+
+    public static void tick(MinecraftServer server) {
+        int interval = ContainerIndicatorConfig.instance().metricsLogIntervalSeconds;
+        if (interval <= 0) {
+            lastLogged = null;
+            ticksSinceLog = 0;
+            return;
+        }
+        if (lastLogged == null) {
+            lastLogged = snapshot();
+        }
+        if (++ticksSinceLog < interval * 20) {
+            return;
+        }
+        ticksSinceLog = 0;
+        long[] now = snapshot();
+        long[] delta = new long[now.length];
+        for (int i = 0; i < now.length; i++) {
+            delta[i] = now[i] - lastLogged[i];
+        }
+        lastLogged = now;
+        ContainerIndicator.LOGGER.info("[Handy Indicator] Last {}s: {}", interval, describe(delta));
+    }
+
+    /** Lines for {@code /handyindicator stats}. */
+    public static String[] report() {
+        long[] totals = snapshot();
+        String refresh = String.format(Locale.ROOT, "Refresh queue: %d chunks, last tick %.2f/%.2f ms of budget",
+                ChunkRefreshScheduler.queueDepth(),
+                ChunkRefreshScheduler.lastTickNanos() / 1_000_000.0,
+                ChunkRefreshScheduler.lastBudgetNanos() / 1_000_000.0);
+        String reevaluation = ConfigReevaluation.isRunning()
+                ? "Config re-evaluation: " + ConfigReevaluation.progress() + " chunks"
+                : "Config re-evaluation: idle";
+        return new String[] {
+                "Since server start: " + describe(totals),
+                refresh,
+                reevaluation,
+                "Sync backlog: " + IndicatorSyncBatcher.backlog() + " positions"
+        };
+    }
+
+    public static void reset() {
+        for (LongAdder adder : updates) {
+            adder.reset();
+        }
+        evaluations.reset();
+        slotsScanned.reset();
+        setBlockCalls.reset();
+        flipsSkipped.reset();
+        refreshNanos.reset();
+        refreshTicks.reset();
+        lastLogged = null;
+        ticksSinceLog = 0;
+    }
+
+    // Layout: one entry per source, then evaluations, slots, setBlock, skipped, refresh nanos, refresh ticks
+    private static long[] snapshot() {
+        long[] values = new long[SOURCES.length + 6];
+        for (int i = 0; i < SOURCES.length; i++) {
+            values[i] = updates[i].sum();
+        }
+        int i = SOURCES.length;
+        values[i++] = evaluations.sum();
+        values[i++] = slotsScanned.sum();
+        values[i++] = setBlockCalls.sum();
+        values[i++] = flipsSkipped.sum();
+        values[i++] = refreshNanos.sum();
+        values[i] = refreshTicks.sum();
+        return values;
+    }
+
+    private static String describe(long[] values) {
+        StringBuilder builder = new StringBuilder("updates (");
+        for (int i = 0; i < SOURCES.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(SOURCES[i].label).append(' ').append(values[i]);
+        }
+        int i = SOURCES.length;
+        builder.append("), ").append(values[i++]).append(" evaluations, ")
+                .append(values[i++]).append(" slots scanned, ")
+                .append(values[i++]).append(" setBlock calls, ")
+                .append(values[i++]).append(" unchanged flips skipped, ");
+        long nanos = values[i++];
+        long ticks = values[i];
+        builder.append(String.format(Locale.ROOT, "refresh %.1f ms over %d ticks", nanos / 1_000_000.0, ticks));
+        return builder.toString();
+    }
+}
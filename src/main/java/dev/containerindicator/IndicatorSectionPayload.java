@@ -0,0 +1,45 @@
+package dev.containerindicator;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.Identifier;
+
+/**
+ * Indicator flag changes within one chunk section in {@link SyncMode#CHANNEL}. Positions are
+ * section-relative as in {@code SectionPos.sectionRelativePos}; a flag of zero clears the entry.
+ */
+public record IndicatorSectionPayload(long section, short[] positions, byte[] flags)
+        implements CustomPacketPayload {
+
+    public static final Type<IndicatorSectionPayload> TYPE = new Type<>(
+            Identifier.fromNamespaceAndPath("container_indicator", "section"));
+    public static final StreamCodec<FriendlyByteBuf, IndicatorSectionPayload> CODEC =
+            CustomPacketPayload.codec(IndicatorSectionPayload::write, IndicatorSectionPayload::new);
+
+    private IndicatorSectionPayload(FriendlyByteBuf buf) {
+        this(buf.readLong(), readShorts(buf), buf.readByteArray());
+    }
+
+    private void write(FriendlyByteBuf buf) {
+        buf.writeLong(section);
+        buf.writeVarInt(positions.length);
+        for (short position : positions) {
+            buf.writeShort(position);
+        }
+        buf.writeByteArray(flags);
+    }
+
+    private static short[] readShorts(FriendlyByteBuf buf) {
+        short[] values = new short[buf.readVarInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buf.readShort();
+        }
+        return values;
+    }
+
+    @Override
+    public Type<IndicatorSectionPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,173 @@
+package dev.containerindicator;
+
+import dev.containerindicator.core.BlockIdSet;
+import dev.containerindicator.core.IndicatorFlags;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.AbstractFurnaceBlock;
+import net.minecraft.world.level.block.BarrelBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.ChestBlock;
+import net.minecraft.world.level.block.CrafterBlock;
+import net.minecraft.world.level.block.DecoratedPotBlock;
+import net.minecraft.world.level.block.DispenserBlock;
+import net.minecraft.world.level.block.HopperBlock;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes a block's indicator flags in whichever {@link SyncMode} is active: as
+ * blockstate properties, or as per-chunk flags synced over the indicator channel.
+ */
+public final class IndicatorStates {
+
+    public static final int HAS_ITEMS = IndicatorFlags.HAS_ITEMS;
+    public static final int HAS_INPUT = IndicatorFlags.HAS_INPUT;
+    public static final int HAS_FUEL = IndicatorFlags.HAS_FUEL;
+
+    private static volatile IndicatorBlocks indicatorBlocks;
+
+    private IndicatorStates() {}
+
+    // Item and furnace indicator blocks by registry id, for the channel mode checks
+    private record IndicatorBlocks(int registrySize, List<Block> blocks, BlockIdSet items, BlockIdSet furnaces) {}
+
+    /**
+     * Every registered block that shows an indicator. Computed once and again only if
+     * blocks were registered since, so callers don't have to walk the whole block registry.
+     */
+    public static List<Block> indicatorBlocks() {
+        return cachedIndicatorBlocks().blocks();
+    }
+
+    private static IndicatorBlocks cachedIndicatorBlocks() {
+        IndicatorBlocks cached = indicatorBlocks;
+        if (cached == null || cached.registrySize() != BuiltInRegistries.BLOCK.size()) {
+            int size = BuiltInRegistries.BLOCK.size();
+            List<Block> found = new ArrayList<>();
+            boolean[] items = new boolean[size];
+            boolean[] furnaces = new boolean[size];
+            for (Block block : BuiltInRegistries.BLOCK) {
+                BlockState state = block.defaultBlockState();
+                boolean showsItems = SyncMode.usesBlockStates() ? showsItems(state) : isItemBlock(block);
+                boolean showsFurnaceSlots = SyncMode.usesBlockStates() ? showsFurnaceSlots(state) : isFurnaceBlock(block);
+                if (showsItems || showsFurnaceSlots) {
+                    found.add(block);
+                    int id = BuiltInRegistries.BLOCK.getId(block);
+                    if (id >= 0 && id < size) {
+                        items[id] = showsItems;
+                        furnaces[id] = showsFurnaceSlots;
+                    }
+                }
+            }
+            cached = new IndicatorBlocks(size, List.copyOf(found), new BlockIdSet(items), new BlockIdSet(furnaces));
+            indicatorBlocks = cached;
+        }
+        return cached;
+    }
+
+    /** Whether the block shows a single "has items" indicator. */
+    public static boolean showsItems(BlockState state) {
+        if (SyncMode.usesBlockStates()) {
+            return state.hasProperty(ContainerIndicator.HAS_ITEMS);
+        }
+        return cachedIndicatorBlocks().items().contains(BuiltInRegistries.BLOCK.getId(state.getBlock()));
+    }
+
+    /** Whether the block shows furnace input/fuel indicators. */
+    public static boolean showsFurnaceSlots(BlockState state) {
+        if (SyncMode.usesBlockStates()) {
+            return state.hasProperty(ContainerIndicator.HAS_INPUT) && state.hasProperty(ContainerIndicator.HAS_FUEL);
+        }
+        return cachedIndicatorBlocks().furnaces().contains(BuiltInRegistries.BLOCK.getId(state.getBlock()));
+    }
+
+    private static boolean isFurnaceBlock(Block block) {
+        return block instanceof AbstractFurnaceBlock;
+    }
+
+    // Mirrors the block classes the state definition mixins target
+    private static boolean isItemBlock(Block block) {
+        return block instanceof ChestBlock || block instanceof BarrelBlock || block instanceof HopperBlock
+                || block instanceof DispenserBlock || block instanceof CrafterBlock
+                || block instanceof DecoratedPotBlock;
+    }
+
+    public static int getFlags(Level level, BlockPos pos, BlockState state) {
+        if (!SyncMode.usesBlockStates()) {
+            return ChannelIndicatorStore.get(level.getChunkAt(pos), pos);
+        }
+        return flagsFromState(state);
+    }
+
+    /** Indicator flags encoded in the blockstate's properties ({@link SyncMode#BLOCKSTATE}). */
+    public static int flagsFromState(BlockState state) {
+        int flags = 0;
+        if (state.hasProperty(ContainerIndicator.HAS_ITEMS) && state.getValue(ContainerIndicator.HAS_ITEMS)) {
+            flags |= HAS_ITEMS;
+        }
+        if (state.hasProperty(ContainerIndicator.HAS_INPUT) && state.getValue(ContainerIndicator.HAS_INPUT)) {
+            flags |= HAS_INPUT;
+        }
+        if (state.hasProperty(ContainerIndicator.HAS_FUEL) && state.getValue(ContainerIndicator.HAS_FUEL)) {
+            flags |= HAS_FUEL;
+        }
+        if (state.hasProperty(ContainerIndicator.FILL_LEVEL)) {
+            flags = IndicatorFlags.withFillTier(flags, state.getValue(ContainerIndicator.FILL_LEVEL));
+        }
+        return flags;
+    }
+
+    /**
+     * Writes the indicator flags if they differ from the current ones, unless
+     * {@link FlipDebounce} holds the container's indicator back. Clients are updated
+     * through {@link IndicatorSyncBatcher}.
+     */
+    public static void setFlags(Level level, BlockPos pos, BlockState state, int flags) {
+        if (level instanceof ServerLevel serverLevel
+                && FlipDebounce.hold(serverLevel, pos, getFlags(level, pos, state), flags)) {
+            return;
+        }
+        writeFlags(level, pos, state, flags);
+    }
+
+    static void writeFlags(Level level, BlockPos pos, BlockState state, int flags) {
+        if (!SyncMode.usesBlockStates()) {
+            if (!ChannelIndicatorStore.set(level.getChunkAt(pos), pos, flags)) {
+                IndicatorMetrics.flipSkipped();
+            } else if (level instanceof ServerLevel serverLevel) {
+                IndicatorSyncBatcher.markChanged(serverLevel, pos);
+            }
+            return;
+        }
+        BlockState newState = state;
+        if (state.hasProperty(ContainerIndicator.HAS_ITEMS)) {
+            newState = newState.setValue(ContainerIndicator.HAS_ITEMS, (flags & HAS_ITEMS) != 0);
+        }
+        if (state.hasProperty(ContainerIndicator.HAS_INPUT)) {
+            newState = newState.setValue(ContainerIndicator.HAS_INPUT, (flags & HAS_INPUT) != 0);
+        }
+        if (state.hasProperty(ContainerIndicator.HAS_FUEL)) {
+            newState = newState.setValue(ContainerIndicator.HAS_FUEL, (flags & HAS_FUEL) != 0);
+        }
+        if (state.hasProperty(ContainerIndicator.FILL_LEVEL)) {
+            newState = newState.setValue(ContainerIndicator.FILL_LEVEL, IndicatorFlags.fillTier(flags));
+        }
+        if (newState == state) {
+            IndicatorMetrics.flipSkipped();
+            return;
+        }
+        IndicatorMetrics.setBlock();
+        if (level instanceof ServerLevel serverLevel) {
+            // Indicator properties don't affect shape; clients are updated in section batches
+            serverLevel.setBlock(pos, newState, Block.UPDATE_KNOWN_SHAPE);
+            IndicatorSyncBatcher.markChanged(serverLevel, pos);
+        } else {
+            level.setBlock(pos, newState, Block.UPDATE_CLIENTS);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package dev.containerindicator;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortIterator;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.game.ClientboundBlockUpdatePacket;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.profiling.Profiler;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends indicator-only blockstate changes to clients in per-section batches.
+ *
+ * <p>Indicator writes skip vanilla's per-block client update; the positions are collected
+ * here instead. At the end of the tick they are grouped by chunk section and appended to an
+ * outbox for every player tracking that section. Each player is then sent at most
+ * {@code syncMaxFlipsPerPlayerPerTick} positions, one packet per section; anything over the
+ * cap stays in the outbox for the following ticks. Packets read the section at send time,
+ * so a block that flipped several times is sent once with its latest state.
+ *
+ * <p>In {@link SyncMode#CHANNEL} the same batches are sent as {@link IndicatorSectionPayload}s
+ * carrying indicator flags instead of blockstates.
+ */
+public final class IndicatorSyncBatcher {
+
+    private static final Map<ServerLevel, LongOpenHashSet> changed = new IdentityHashMap<>();
+    private static final Map<ServerPlayer, Outbox> outboxes = new IdentityHashMap<>();
+
+    private IndicatorSyncBatcher() {}
+
+    private static final class Outbox {
+        ServerLevel level;
+        // Section position -> section-relative block positions, oldest section first
+        final Long2ObjectLinkedOpenHashMap<ShortSet> sections = new Long2ObjectLinkedOpenHashMap<>();
+        int size;
+
+        void add(ServerLevel level, long section, ShortSet positions) {
+            if (this.level != level) {
+                // Player changed dimension; the new level's chunks are sent in full anyway
+                this.level = level;
+                sections.clear();
+                size = 0;
+            }
+            ShortSet queued = sections.get(section);
+            if (queued == null) {
+                queued = new ShortOpenHashSet();
+                sections.put(section, queued);
+            }
+            int before = queued.size();
+            queued.addAll(positions);
+            size += queued.size() - before;
+        }
+    }
+
+    public static void markChanged(ServerLevel level, BlockPos pos) {
+        changed.computeIfAbsent(level, l -> new LongOpenHashSet()).add(pos.asLong());
+    }
+
+    public static void flush(MinecraftServer server) {
+        if (!changed.isEmpty()) {
+            for (Map.Entry<ServerLevel, LongOpenHashSet> entry : changed.entrySet()) {
+                distribute(entry.getKey(), entry.getValue());
+            }
+            changed.clear();
+        }
+        if (outboxes.isEmpty()) {
+            return;
+        }
+
+        ProfilerFiller profiler = Profiler.get();
+        profiler.push("handyIndicatorSync");
+        int cap = ContainerIndicatorConfig.instance().syncMaxFlipsPerPlayerPerTick;
+        Iterator<Map.Entry<ServerPlayer, Outbox>> it = outboxes.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ServerPlayer, Outbox> entry = it.next();
+            ServerPlayer player = entry.getKey();
+            Outbox outbox = entry.getValue();
+            if (player.hasDisconnected() || player.level() != outbox.level) {
+                it.remove();
+                continue;
+            }
+            send(player, outbox, cap <= 0 ? Integer.MAX_VALUE : cap);
+            if (outbox.size == 0) {
+                it.remove();
+            }
+        }
+        profiler.pop();
+    }
+
+    public static void onDisconnect(ServerPlayer player) {
+        outboxes.remove(player);
+    }
+
+    public static void clear() {
+        changed.clear();
+        outboxes.clear();
+    }
+
+    /** Number of indicator changes waiting in player outboxes because of the per-player cap. */
+    public static int backlog() {
+        int total = 0;
+        for (Outbox outbox : outboxes.values()) {
+            total += outbox.size;
+        }
+        return total;
+    }
+
+    private static void distribute(ServerLevel level, LongOpenHashSet positions) {
+        Long2ObjectMap<ShortSet> bySection = new Long2ObjectOpenHashMap<>();
+        for (long packed : positions) {
+            BlockPos pos = BlockPos.of(packed);
+            long section = SectionPos.asLong(pos);
+            ShortSet relative = bySection.get(section);
+            if (relative == null) {
+                relative = new ShortOpenHashSet();
+                bySection.put(section, relative);
+            }
+            relative.add(SectionPos.sectionRelativePos(pos));
+        }
+
+        for (Long2ObjectMap.Entry<ShortSet> entry : bySection.long2ObjectEntrySet()) {
+            long section = entry.getLongKey();
+            ChunkPos chunkPos = new ChunkPos(SectionPos.x(section), SectionPos.z(section));
+            List<ServerPlayer> players = level.getChunkSource().chunkMap.getPlayers(chunkPos, false);
+            for (ServerPlayer player : players) {
+                outboxes.computeIfAbsent(player, p -> new Outbox()).add(level, section, entry.getValue());
+            }
+        }
+    }
+
+    private static void send(ServerPlayer player, Outbox outbox, int budget) {
+        ServerLevel level = outbox.level;
+        while (budget > 0 && !outbox.sections.isEmpty()) {
+            long section = outbox.sections.firstLongKey();
+            ShortSet positions = outbox.sections.get(section);
+
+            ShortSet batch;
+            if (positions.size() <= budget) {
+                batch = outbox.sections.removeFirst();
+            } else {
+                // Split the section; the rest stays at the head of the outbox for next tick
+                batch = new ShortOpenHashSet(budget);
+                ShortIterator it = positions.iterator();
+                while (batch.size() < budget) {
+                    batch.add(it.nextShort());
+                    it.remove();
+                }
+            }
+            outbox.size -= batch.size();
+            budget -= batch.size();
+            sendSection(player, level, section, batch);
+        }
+    }
+
+    private static void sendSection(ServerPlayer player, ServerLevel level, long section, ShortSet positions) {
+        int chunkX = SectionPos.x(section);
+        int chunkZ = SectionPos.z(section);
+        // Chunks the player no longer tracks are resent in full if they come back into view
+        if (!player.getChunkTrackingView().contains(chunkX, chunkZ)) {
+            return;
+        }
+        LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+        if (chunk == null) {
+            return;
+        }
+        SectionPos sectionPos = SectionPos.of(section);
+        if (!SyncMode.usesBlockStates()) {
+            ChannelIndicatorStore.sendSection(player, chunk, sectionPos, positions);
+            return;
+        }
+        if (positions.size() == 1) {
+            BlockPos pos = sectionPos.relativeToBlockPos(positions.iterator().nextShort());
+            player.connection.send(new ClientboundBlockUpdatePacket(pos, chunk.getBlockState(pos)));
+            return;
+        }
+        LevelChunkSection levelSection = chunk.getSection(level.getSectionIndexFromSectionY(sectionPos.y()));
+        player.connection.send(new ClientboundSectionBlocksUpdatePacket(sectionPos, positions, levelSection));
+    }
+}
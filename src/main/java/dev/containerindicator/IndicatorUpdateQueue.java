@@ -0,0 +1,103 @@
+package dev.containerindicator;
+
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.profiling.Profiler;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Collects containers whose contents changed during a tick and evaluates each one
+ * once at the end of the tick, so several changes to the same container within a
+ * tick result in at most one blockstate write.
+ *
+ * <p>Hopper slot changes always go through this queue; other container changes only when
+ * {@code coalesceUpdates} is set. Containers marked changed outside a tracked slot change
+ * (see {@link ContainerOccupancy#markModified}) are queued separately and only evaluated if
+ * a stack turns out to have changed in place.
+ */
+public final class IndicatorUpdateQueue {
+
+    private static final Map<ServerLevel, ReferenceLinkedOpenHashSet<BlockEntity>> dirty = new IdentityHashMap<>();
+    private static final Map<ServerLevel, ReferenceLinkedOpenHashSet<BlockEntity>> modified = new IdentityHashMap<>();
+
+    private IndicatorUpdateQueue() {}
+
+    /**
+     * Marks the block entity for evaluation at the end of the tick.
+     *
+     * @return true if the update was deferred, false if the caller should evaluate now
+     */
+    public static boolean defer(BlockEntity entity) {
+        if (!ContainerIndicatorConfig.instance().coalesceUpdates) {
+            return false;
+        }
+        return enqueue(entity);
+    }
+
+    /**
+     * Marks the block entity for evaluation at the end of the tick, regardless of
+     * {@code coalesceUpdates}.
+     *
+     * @return false if the block entity isn't in a server level and wasn't queued
+     */
+    public static boolean enqueue(BlockEntity entity) {
+        if (!(entity.getLevel() instanceof ServerLevel level)) {
+            return false;
+        }
+        dirty.computeIfAbsent(level, l -> new ReferenceLinkedOpenHashSet<>()).add(entity);
+        return true;
+    }
+
+    /**
+     * Marks a tracked container for an in-place change check at the end of the tick.
+     */
+    public static void enqueueModified(BlockEntity entity) {
+        if (entity.getLevel() instanceof ServerLevel level) {
+            modified.computeIfAbsent(level, l -> new ReferenceLinkedOpenHashSet<>()).add(entity);
+        }
+    }
+
+    public static void flush(MinecraftServer server) {
+        if (dirty.isEmpty() && modified.isEmpty()) {
+            return;
+        }
+        ProfilerFiller profiler = Profiler.get();
+        profiler.push("handyIndicatorFlush");
+        for (Map.Entry<ServerLevel, ReferenceLinkedOpenHashSet<BlockEntity>> entry : dirty.entrySet()) {
+            ServerLevel level = entry.getKey();
+            ReferenceLinkedOpenHashSet<BlockEntity> entities = entry.getValue();
+            while (!entities.isEmpty()) {
+                BlockEntity be = entities.removeFirst();
+                if (isLive(level, be)) {
+                    ContainerStateHelper.refreshBlockEntity(be);
+                }
+            }
+        }
+        // Containers evaluated above were synced with it; the rest only if a stack changed in place
+        for (Map.Entry<ServerLevel, ReferenceLinkedOpenHashSet<BlockEntity>> entry : modified.entrySet()) {
+            ServerLevel level = entry.getKey();
+            ReferenceLinkedOpenHashSet<BlockEntity> entities = entry.getValue();
+            while (!entities.isEmpty()) {
+                BlockEntity be = entities.removeFirst();
+                if (isLive(level, be)) {
+                    ContainerStateHelper.refreshIfModified(be);
+                }
+            }
+        }
+        profiler.pop();
+    }
+
+    private static boolean isLive(ServerLevel level, BlockEntity be) {
+        return !be.isRemoved() && be.getLevel() == level && level.isLoaded(be.getBlockPos());
+    }
+
+    public static void clear() {
+        dirty.clear();
+        modified.clear();
+    }
+}
@@ -0,0 +1,15 @@
+package dev.containerindicator;
+
+import net.minecraft.core.NonNullList;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Implemented on container block entities by {@code BaseContainerBlockEntityMixin}.
+ */
+public interface OccupancyTracked {
+
+    ContainerOccupancy containerindicator$getOccupancy();
+
+    /** The backing item list, read without unpacking loot tables. */
+    NonNullList<ItemStack> containerindicator$getItems();
+}
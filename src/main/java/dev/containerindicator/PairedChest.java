@@ -0,0 +1,9 @@
+package dev.containerindicator;
+
+/**
+ * Implemented on chest block entities by {@code ChestBlockEntityMixin}.
+ */
+public interface PairedChest {
+
+    ChestPairing containerindicator$getPairing();
+}
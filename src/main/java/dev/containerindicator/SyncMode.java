@@ -0,0 +1,46 @@
+package dev.containerindicator;
+
+import java.util.Locale;
+
+/**
+ * How indicator state reaches clients.
+ *
+ * <p>{@link #BLOCKSTATE} adds {@code has_items}/{@code has_input}/{@code has_fuel} properties
+ * to container blocks and lets vanilla sync them. {@link #CHANNEL} leaves the blockstate
+ * registry vanilla: the server keeps indicator flags per chunk and sends them over a custom
+ * payload channel, and the client overlays models from that data.
+ *
+ * <p>The mode shapes block state definitions, so it is read once while blocks are being
+ * constructed and a change only applies after a restart. Server and client must use the
+ * same mode, since the number of states per block differs between them.
+ */
+public enum SyncMode {
+    BLOCKSTATE,
+    CHANNEL;
+
+    private static final class Holder {
+        static final SyncMode ACTIVE = resolve();
+    }
+
+    public static SyncMode active() {
+        return Holder.ACTIVE;
+    }
+
+    public static boolean usesBlockStates() {
+        return active() == BLOCKSTATE;
+    }
+
+    private static SyncMode resolve() {
+        // Blocks are bootstrapped before mod initializers run, so the config may not be loaded yet
+        ContainerIndicatorConfig.ensureLoaded();
+        String value = ContainerIndicatorConfig.instance().syncMode;
+        if (value != null) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                ContainerIndicator.LOGGER.warn("[Handy Indicator] Unknown syncMode '{}', using blockstate", value);
+            }
+        }
+        return BLOCKSTATE;
+    }
+}
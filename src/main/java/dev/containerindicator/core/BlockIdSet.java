@@ -0,0 +1,42 @@
+package dev.containerindicator.core;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of block registry ids backed by a flat boolean array.
+ */
+public final class BlockIdSet {
+
+    private final boolean[] members;
+    private final int fingerprint;
+
+    public BlockIdSet(boolean[] members) {
+        this.members = members;
+        this.fingerprint = Arrays.hashCode(members);
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && id < members.length && members[id];
+    }
+
+    /** Number of ids the set was built for; ids registered later are never members. */
+    public int capacity() {
+        return members.length;
+    }
+
+    /**
+     * Marks, by id, every id whose membership differs between the two sets.
+     */
+    public boolean[] diff(BlockIdSet other) {
+        boolean[] changed = new boolean[Math.max(members.length, other.members.length)];
+        for (int id = 0; id < changed.length; id++) {
+            changed[id] = contains(id) != other.contains(id);
+        }
+        return changed;
+    }
+
+    /** Hash of the member set; equal sets have equal fingerprints. */
+    public int fingerprint() {
+        return fingerprint;
+    }
+}
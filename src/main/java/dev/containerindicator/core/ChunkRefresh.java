@@ -0,0 +1,123 @@
+package dev.containerindicator.core;
+
+import java.util.List;
+
+/**
+ * The per-container decisions of a chunk refresh: rebuild tracked occupancy, check
+ * enablement and compute the indicator flags of each container. Game access (block ids,
+ * item lists, double chest partners, writing flags) goes through {@link Access}, so the same
+ * loop runs in game and in benchmarks.
+ */
+public final class ChunkRefresh {
+
+    private ChunkRefresh() {}
+
+    public enum Kind {
+        /** Not an indicator container (any more); skipped. */
+        NONE,
+        /** A single "has items" indicator. */
+        ITEMS,
+        /** Furnace input and fuel indicators. */
+        FURNACE
+    }
+
+    /**
+     * How the refresh reads and writes containers of type {@code C} holding items of type
+     * {@code T}.
+     */
+    public interface Access<C, T> {
+
+        Kind kind(C container);
+
+        int blockId(C container);
+
+        List<T> items(C container);
+
+        /** Tracked occupancy of the container, or null if its slots are scanned. */
+        SlotOccupancy<T> occupancy(C container);
+
+        /** The other half of a double chest, or null. */
+        C partner(C container);
+
+        boolean isEmpty(T item);
+
+        /** {@link IndicatorFlags#slotFill} of one item. */
+        int slotFill(T item);
+
+        /** Writes the flags of an evaluated container. */
+        void setFlags(C container, int flags);
+
+        /** Mirrors the flags of a double chest onto its other half, which was not evaluated itself. */
+        void setPartnerFlags(C partner, int flags);
+    }
+
+    /**
+     * Refreshes every container.
+     *
+     * @param enabled   block ids that show indicators
+     * @param fillTiers whether item containers carry a fill tier
+     * @return the number of containers visited
+     */
+    public static <C, T> int refresh(Iterable<C> containers, Access<C, T> access, BlockIdSet enabled,
+                                     boolean fillTiers) {
+        int visited = 0;
+        for (C container : containers) {
+            visited++;
+            Kind kind = access.kind(container);
+            if (kind == Kind.NONE) {
+                continue;
+            }
+            List<T> items = access.items(container);
+            SlotOccupancy<T> occupancy = access.occupancy(container);
+            if (occupancy != null) {
+                occupancy.rebuild(items);
+            }
+            boolean on = enabled.contains(access.blockId(container));
+
+            if (kind == Kind.FURNACE) {
+                access.setFlags(container, on ? IndicatorFlags.furnace(items, access::isEmpty) : 0);
+                continue;
+            }
+
+            // Either half of a double chest having items lights both
+            C partner = access.partner(container);
+            boolean thisHasItems = on && hasItems(items, occupancy, access);
+            boolean partnerHasItems = on && !thisHasItems && partner != null
+                    && hasItems(access.items(partner), access.occupancy(partner), access);
+            int flags = IndicatorFlags.chest(thisHasItems, partnerHasItems);
+            if (flags != 0 && fillTiers) {
+                long fill = fill(items, occupancy, access);
+                int slots = items.size();
+                if (partner != null) {
+                    List<T> partnerItems = access.items(partner);
+                    fill += fill(partnerItems, access.occupancy(partner), access);
+                    slots += partnerItems.size();
+                }
+                flags = IndicatorFlags.withFillTier(flags, IndicatorFlags.fillTier(fill, slots));
+            }
+            access.setFlags(container, flags);
+            if (partner != null) {
+                access.setPartnerFlags(partner, flags);
+            }
+        }
+        return visited;
+    }
+
+    private static <C, T> boolean hasItems(List<T> items, SlotOccupancy<T> occupancy, Access<C, T> access) {
+        if (occupancy != null) {
+            return occupancy.hasItems(items);
+        }
+        return IndicatorFlags.firstOccupied(items, access::isEmpty) >= 0;
+    }
+
+    private static <C, T> long fill(List<T> items, SlotOccupancy<T> occupancy, Access<C, T> access) {
+        if (occupancy != null) {
+            return occupancy.fill(items);
+        }
+        long fill = 0;
+        for (T item : items) {
+            fill += access.isEmpty(item) ? 0 : access.slotFill(item);
+        }
+        return fill;
+    }
+}
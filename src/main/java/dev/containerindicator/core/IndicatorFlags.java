@@ -0,0 +1,92 @@
+package dev.containerindicator.core;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Indicator flag values and the decisions that produce them, independent of Minecraft types
+ * so they can be benchmarked on their own.
+ */
+public final class IndicatorFlags {
+
+    public static final int HAS_ITEMS = 1;
+    public static final int HAS_INPUT = 2;
+    public static final int HAS_FUEL = 4;
+
+    // Fill tier of an item container (0 = up to a quarter full, 3 = over three quarters), in bits 3-4
+    public static final int FILL_TIERS = 4;
+    public static final int FILL_TIER_SHIFT = 3;
+    public static final int FILL_TIER_MASK = 0b11 << FILL_TIER_SHIFT;
+
+    // Flags fit in this many bits; tables indexed by flags have 1 << FLAG_BITS entries
+    public static final int FLAG_BITS = 5;
+    public static final int FLAG_MASK = (1 << FLAG_BITS) - 1;
+
+    // Fill contributed by one full slot, in fixed point so sums stay exact as slots change
+    public static final int SLOT_FILL_UNIT = 1 << 12;
+
+    // Furnace slot layout: input, then fuel
+    public static final int FURNACE_INPUT_SLOT = 0;
+    public static final int FURNACE_FUEL_SLOT = 1;
+
+    private IndicatorFlags() {}
+
+    /**
+     * Index of the first non-empty slot, or -1 if every slot is empty.
+     */
+    public static <T> int firstOccupied(List<T> slots, Predicate<? super T> isEmpty) {
+        for (int i = 0; i < slots.size(); i++) {
+            if (!isEmpty.test(slots.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static int items(boolean hasItems) {
+        return hasItems ? HAS_ITEMS : 0;
+    }
+
+    public static <T> int furnace(List<T> slots, Predicate<? super T> isEmpty) {
+        boolean hasInput = slots.size() > FURNACE_INPUT_SLOT && !isEmpty.test(slots.get(FURNACE_INPUT_SLOT));
+        boolean hasFuel = slots.size() > FURNACE_FUEL_SLOT && !isEmpty.test(slots.get(FURNACE_FUEL_SLOT));
+        return (hasInput ? HAS_INPUT : 0) | (hasFuel ? HAS_FUEL : 0);
+    }
+
+    /**
+     * How full one slot is, in {@link #SLOT_FILL_UNIT}s: its count over its max stack size,
+     * like the comparator signal.
+     */
+    public static int slotFill(int count, int maxStackSize) {
+        if (count <= 0 || maxStackSize <= 0) {
+            return 0;
+        }
+        return (int) Math.min(SLOT_FILL_UNIT, (long) count * SLOT_FILL_UNIT / maxStackSize);
+    }
+
+    /**
+     * Fill tier for a summed {@link #slotFill} over {@code slots} slots.
+     */
+    public static int fillTier(long fill, int slots) {
+        if (slots <= 0 || fill <= 0) {
+            return 0;
+        }
+        long capacity = (long) slots * SLOT_FILL_UNIT;
+        return (int) Math.min(FILL_TIERS - 1, (fill * FILL_TIERS - 1) / capacity);
+    }
+
+    public static int fillTier(int flags) {
+        return (flags & FILL_TIER_MASK) >>> FILL_TIER_SHIFT;
+    }
+
+    public static int withFillTier(int flags, int tier) {
+        return (flags & ~FILL_TIER_MASK) | ((tier << FILL_TIER_SHIFT) & FILL_TIER_MASK);
+    }
+
+    /**
+     * Flags shared by both halves of a double chest: either half having items lights both.
+     */
+    public static int chest(boolean thisHasItems, boolean neighbourHasItems) {
+        return items(thisHasItems || neighbourHasItems);
+    }
+}
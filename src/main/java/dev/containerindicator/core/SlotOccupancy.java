@@ -0,0 +1,191 @@
+package dev.containerindicator.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Per-container record of which slots hold items, so "has items" can be answered
+ * without walking every slot.
+ *
+ * <p>Bits are updated from the slot that changed. Stacks can still be shrunk in place
+ * without going through {@code setItem}, so a set bit is only trusted after its stack
+ * has been checked; stale bits are cleared as they are found. If the container swaps
+ * in a different item list (e.g. {@code setItems}), the bits are rebuilt from it.
+ * Subclasses can watch stacks for in-place changes through {@link #onTracked} and report
+ * them with {@link #refresh}.
+ *
+ * <p>Given a fill function, it also keeps the summed fill of all slots (see
+ * {@link IndicatorFlags#slotFill}), adjusted by the difference in the slot that changed, so
+ * a fill tier never needs a walk over every slot.
+ *
+ * <p>Independent of Minecraft types: the slot element type is a type parameter, and the
+ * emptiness check (and optional fill function) are passed to the constructor.
+ */
+public class SlotOccupancy<T> {
+
+    private static final long[] NO_WORDS = new long[0];
+    private static final int[] NO_FILL = new int[0];
+
+    private final Predicate<? super T> isEmpty;
+    private final ToIntFunction<? super T> fillOf;
+    private long[] words = NO_WORDS;
+    private int occupiedSlots;
+    private int[] slotFill = NO_FILL;
+    private long fill;
+    private List<T> source;
+
+    public SlotOccupancy(Predicate<? super T> isEmpty) {
+        this(isEmpty, null);
+    }
+
+    /**
+     * @param fillOf an item's {@link IndicatorFlags#slotFill}, or null to not track fill
+     */
+    public SlotOccupancy(Predicate<? super T> isEmpty, ToIntFunction<? super T> fillOf) {
+        this.isEmpty = isEmpty;
+        this.fillOf = fillOf;
+    }
+
+    public void update(List<T> items, int slot) {
+        if (items != source) {
+            rebuild(items);
+            return;
+        }
+        if (slot < 0 || slot >= items.size()) {
+            return;
+        }
+        T item = items.get(slot);
+        set(slot, !isEmpty.test(item));
+        setFill(slot, item);
+        onTracked(slot, item);
+    }
+
+    public void rebuild(List<T> items) {
+        source = items;
+        int wordCount = (items.size() + 63) >>> 6;
+        if (words.length != wordCount) {
+            words = wordCount == 0 ? NO_WORDS : new long[wordCount];
+        } else {
+            Arrays.fill(words, 0L);
+        }
+        occupiedSlots = 0;
+        if (fillOf != null) {
+            if (slotFill.length != items.size()) {
+                slotFill = new int[items.size()];
+            } else {
+                Arrays.fill(slotFill, 0);
+            }
+            fill = 0;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (!isEmpty.test(item)) {
+                set(i, true);
+            }
+            setFill(i, item);
+            onTracked(i, item);
+        }
+    }
+
+    /**
+     * Re-reads one slot whose item changed in place.
+     *
+     * @return true if the slot went from empty to occupied or back
+     */
+    public boolean refresh(List<T> items, int slot) {
+        if (items != source) {
+            rebuild(items);
+            return true;
+        }
+        if (slot < 0 || slot >= items.size()) {
+            return false;
+        }
+        int w = slot >>> 6;
+        boolean wasOccupied = w < words.length && (words[w] & (1L << (slot & 63))) != 0L;
+        T item = items.get(slot);
+        boolean occupied = !isEmpty.test(item);
+        set(slot, occupied);
+        setFill(slot, item);
+        return wasOccupied != occupied;
+    }
+
+    /** Called for each item placed in a slot the bits were just updated from. */
+    protected void onTracked(int slot, T item) {}
+
+    public boolean hasItems(List<T> items) {
+        if (items != source) {
+            rebuild(items);
+        }
+        while (occupiedSlots > 0) {
+            int slot = firstOccupiedSlot();
+            if (slot < items.size() && !isEmpty.test(items.get(slot))) {
+                return true;
+            }
+            // Stack was emptied in place (or the list shrank) since the bit was set
+            set(slot, false);
+            if (slot < items.size()) {
+                setFill(slot, items.get(slot));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Summed {@link IndicatorFlags#slotFill} of every slot; 0 if fill isn't tracked.
+     */
+    public long fill(List<T> items) {
+        if (items != source) {
+            rebuild(items);
+        }
+        return fill;
+    }
+
+    public int fillTier(List<T> items) {
+        return IndicatorFlags.fillTier(fill(items), items.size());
+    }
+
+    private void setFill(int slot, T item) {
+        if (fillOf == null) {
+            return;
+        }
+        if (slot >= slotFill.length) {
+            slotFill = Arrays.copyOf(slotFill, slot + 1);
+        }
+        int value = item == null || isEmpty.test(item) ? 0 : fillOf.applyAsInt(item);
+        fill += value - slotFill[slot];
+        slotFill[slot] = value;
+    }
+
+    private int firstOccupiedSlot() {
+        for (int w = 0; w < words.length; w++) {
+            if (words[w] != 0L) {
+                return (w << 6) + Long.numberOfTrailingZeros(words[w]);
+            }
+        }
+        return -1;
+    }
+
+    private void set(int slot, boolean occupied) {
+        int w = slot >>> 6;
+        if (w >= words.length) {
+            if (!occupied) {
+                return;
+            }
+            words = Arrays.copyOf(words, w + 1);
+        }
+        long mask = 1L << (slot & 63);
+        boolean wasOccupied = (words[w] & mask) != 0L;
+        if (wasOccupied == occupied) {
+            return;
+        }
+        if (occupied) {
+            words[w] |= mask;
+            occupiedSlots++;
+        } else {
+            words[w] &= ~mask;
+            occupiedSlots--;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package dev.containerindicator.mixin;
 
 import dev.containerindicator.ContainerStateHelper;
+import dev.containerindicator.IndicatorMetrics;
+import net.minecraft.core.BlockPos;
 import net.minecraft.core.NonNullList;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.entity.AbstractFurnaceBlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.storage.ValueInput;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -17,13 +21,33 @@ public abstract class AbstractFurnaceBlockEntityMixin {
     @Shadow
     protected NonNullList<ItemStack> items;
 
+    // Changing the input slot calls setChanged before the slot is tracked at TAIL
+    @Inject(method = "setItem", at = @At("HEAD"))
+    private void containerindicator$beforeSetItem(int slot, ItemStack stack, CallbackInfo ci) {
+        ContainerStateHelper.beginSlotChange((AbstractFurnaceBlockEntity) (Object) this);
+    }
+
     @Inject(method = "setItem", at = @At("TAIL"))
     private void containerindicator$onSetItem(int slot, ItemStack stack, CallbackInfo ci) {
+        IndicatorMetrics.update(IndicatorMetrics.Source.SET_ITEM);
+        // Tracked so fuel and input burning down in place are noticed
+        ContainerStateHelper.trackSlot((AbstractFurnaceBlockEntity) (Object) this, this.items, slot);
         ContainerStateHelper.updateFurnaceState((AbstractFurnaceBlockEntity) (Object) this, this.items);
     }
 
+    // Burning fuel and input shrinks their stacks in place; the tick then marks the furnace
+    // changed through the static setChanged, which the instance hook doesn't see
+    @Inject(method = "serverTick",
+            at = @At(value = "INVOKE", target = "setChanged(Lnet/minecraft/world/level/Level;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;)V"))
+    private static void containerindicator$onTickChanged(ServerLevel level, BlockPos pos, BlockState state,
+                                                         AbstractFurnaceBlockEntity entity, CallbackInfo ci) {
+        ContainerStateHelper.onContainerChanged(entity);
+    }
+
     @Inject(method = "loadAdditional", at = @At("TAIL"))
     private void containerindicator$onLoadAdditional(ValueInput input, CallbackInfo ci) {
+        IndicatorMetrics.update(IndicatorMetrics.Source.LOAD);
+        ContainerStateHelper.rebuildOccupancy((AbstractFurnaceBlockEntity) (Object) this, this.items);
         ContainerStateHelper.updateFurnaceState((AbstractFurnaceBlockEntity) (Object) this, this.items);
     }
 }
@@ -1,6 +1,7 @@
 package dev.containerindicator.mixin;
 
 import dev.containerindicator.ContainerIndicator;
+import dev.containerindicator.SyncMode;
 import net.minecraft.world.level.block.AbstractFurnaceBlock;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockBehaviour;
@@ -20,12 +21,14 @@ public abstract class AbstractFurnaceBlockMixin extends Block {
 
     @Inject(method = "createBlockStateDefinition", at = @At("TAIL"))
     private void containerindicator$addHasItems(StateDefinition.Builder<Block, BlockState> builder, CallbackInfo ci) {
+        if (!SyncMode.usesBlockStates()) return;
         builder.add(ContainerIndicator.HAS_INPUT);
         builder.add(ContainerIndicator.HAS_FUEL);
     }
 
     @Inject(method = "<init>", at = @At("RETURN"))
     private void containerindicator$setDefaultHasItems(BlockBehaviour.Properties properties, CallbackInfo ci) {
+        if (!SyncMode.usesBlockStates()) return;
         this.registerDefaultState(this.defaultBlockState()
                 .setValue(ContainerIndicator.HAS_INPUT, false)
                 .setValue(ContainerIndicator.HAS_FUEL, false));
@@ -1,6 +1,7 @@
 package dev.containerindicator.mixin;
 
 import dev.containerindicator.ContainerStateHelper;
+import dev.containerindicator.IndicatorMetrics;
 import net.minecraft.core.NonNullList;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.entity.BarrelBlockEntity;
@@ -19,6 +20,8 @@ public abstract class BarrelBlockEntityMixin {
 
     @Inject(method = "loadAdditional", at = @At("TAIL"))
     private void containerindicator$onLoadAdditional(ValueInput input, CallbackInfo ci) {
+        IndicatorMetrics.update(IndicatorMetrics.Source.LOAD);
+        ContainerStateHelper.rebuildOccupancy((BarrelBlockEntity) (Object) this, this.items);
         ContainerStateHelper.updateHasItems((BarrelBlockEntity) (Object) this, this.items);
     }
 }
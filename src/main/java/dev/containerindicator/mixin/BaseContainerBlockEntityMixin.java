@@ -1,24 +1,49 @@
 package dev.containerindicator.mixin;
 
-import dev.containerindicator.ContainerIndicator;
+import dev.containerindicator.ContainerOccupancy;
 import dev.containerindicator.ContainerStateHelper;
+import dev.containerindicator.IndicatorMetrics;
+import dev.containerindicator.IndicatorStates;
+import dev.containerindicator.OccupancyTracked;
+import net.minecraft.core.NonNullList;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.entity.BaseContainerBlockEntity;
 import net.minecraft.world.level.block.entity.ChestBlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(BaseContainerBlockEntity.class)
-public abstract class BaseContainerBlockEntityMixin {
+public abstract class BaseContainerBlockEntityMixin implements OccupancyTracked {
 
-    private void containerindicator$tryUpdate() {
+    @Unique
+    private final ContainerOccupancy containerindicator$occupancy =
+            new ContainerOccupancy((BaseContainerBlockEntity) (Object) this);
+
+    @Shadow
+    protected abstract NonNullList<ItemStack> getItems();
+
+    @Override
+    public ContainerOccupancy containerindicator$getOccupancy() {
+        return containerindicator$occupancy;
+    }
+
+    @Override
+    public NonNullList<ItemStack> containerindicator$getItems() {
+        return getItems();
+    }
+
+    private void containerindicator$tryUpdate(int slot, IndicatorMetrics.Source source) {
         BaseContainerBlockEntity self = (BaseContainerBlockEntity) (Object) this;
         BlockState state = self.getBlockState();
-        if (state.hasProperty(ContainerIndicator.HAS_ITEMS)) {
+        if (IndicatorStates.showsItems(state)) {
+            IndicatorMetrics.update(source);
+            containerindicator$occupancy.update(getItems(), slot);
             if (self instanceof ChestBlockEntity chest) {
                 ContainerStateHelper.updateChestHasItems(chest, chest);
             } else {
@@ -27,13 +52,31 @@ public abstract class BaseContainerBlockEntityMixin {
         }
     }
 
+    // setItem and removeItem call setChanged themselves, before the slot is tracked at TAIL
+    @Unique
+    private void containerindicator$beginChange() {
+        if (IndicatorStates.showsItems(((BaseContainerBlockEntity) (Object) this).getBlockState())) {
+            containerindicator$occupancy.beginSlotChange();
+        }
+    }
+
+    @Inject(method = "setItem", at = @At("HEAD"))
+    private void containerindicator$beforeSetItem(int slot, ItemStack stack, CallbackInfo ci) {
+        containerindicator$beginChange();
+    }
+
+    @Inject(method = "removeItem", at = @At("HEAD"))
+    private void containerindicator$beforeRemoveItem(int slot, int amount, CallbackInfoReturnable<ItemStack> cir) {
+        containerindicator$beginChange();
+    }
+
     @Inject(method = "setItem", at = @At("TAIL"))
     private void containerindicator$onSetItem(int slot, ItemStack stack, CallbackInfo ci) {
-        containerindicator$tryUpdate();
+        containerindicator$tryUpdate(slot, IndicatorMetrics.Source.SET_ITEM);
     }
 
     @Inject(method = "removeItem", at = @At("TAIL"))
     private void containerindicator$onRemoveItem(int slot, int amount, CallbackInfoReturnable<ItemStack> cir) {
-        containerindicator$tryUpdate();
+        containerindicator$tryUpdate(slot, IndicatorMetrics.Source.REMOVE_ITEM);
     }
 }
@@ -0,0 +1,19 @@
+package dev.containerindicator.mixin;
+
+import dev.containerindicator.ContainerStateHelper;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(BlockEntity.class)
+public abstract class BlockEntityMixin {
+
+    // Containers and menus call this after changing stacks in place; the static overload
+    // callers that matter (furnace and hopper ticks) are hooked in their own mixins
+    @Inject(method = "setChanged()V", at = @At("HEAD"))
+    private void containerindicator$onSetChanged(CallbackInfo ci) {
+        ContainerStateHelper.onContainerChanged((BlockEntity) (Object) this);
+    }
+}
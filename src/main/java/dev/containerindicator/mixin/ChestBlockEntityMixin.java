@@ -1,19 +1,39 @@
 package dev.containerindicator.mixin;
 
+import dev.containerindicator.ChestPairing;
 import dev.containerindicator.ContainerStateHelper;
+import dev.containerindicator.IndicatorMetrics;
+import dev.containerindicator.PairedChest;
+import net.minecraft.core.NonNullList;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.entity.ChestBlockEntity;
 import net.minecraft.world.level.storage.ValueInput;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(ChestBlockEntity.class)
-public abstract class ChestBlockEntityMixin {
+public abstract class ChestBlockEntityMixin implements PairedChest {
+
+    @Unique
+    private final ChestPairing containerindicator$pairing = new ChestPairing();
+
+    @Shadow
+    private NonNullList<ItemStack> items;
+
+    @Override
+    public ChestPairing containerindicator$getPairing() {
+        return containerindicator$pairing;
+    }
 
     @Inject(method = "loadAdditional", at = @At("TAIL"))
     private void containerindicator$onLoadAdditional(ValueInput input, CallbackInfo ci) {
+        IndicatorMetrics.update(IndicatorMetrics.Source.LOAD);
         ChestBlockEntity self = (ChestBlockEntity) (Object) this;
+        ContainerStateHelper.rebuildOccupancy(self, this.items);
         ContainerStateHelper.updateChestHasItems(self, self);
     }
 }
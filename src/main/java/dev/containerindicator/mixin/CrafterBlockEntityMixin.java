@@ -1,6 +1,7 @@
 package dev.containerindicator.mixin;
 
 import dev.containerindicator.ContainerStateHelper;
+import dev.containerindicator.IndicatorMetrics;
 import net.minecraft.core.NonNullList;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.entity.CrafterBlockEntity;
@@ -19,11 +20,15 @@ public abstract class CrafterBlockEntityMixin {
 
     @Inject(method = "setItem", at = @At("TAIL"))
     private void containerindicator$onSetItem(int slot, ItemStack stack, CallbackInfo ci) {
+        IndicatorMetrics.update(IndicatorMetrics.Source.SET_ITEM);
+        ContainerStateHelper.trackSlot((CrafterBlockEntity) (Object) this, this.items, slot);
         ContainerStateHelper.updateHasItems((CrafterBlockEntity) (Object) this, this.items);
     }
 
     @Inject(method = "loadAdditional", at = @At("TAIL"))
     private void containerindicator$onLoadAdditional(ValueInput input, CallbackInfo ci) {
+        IndicatorMetrics.update(IndicatorMetrics.Source.LOAD);
+        ContainerStateHelper.rebuildOccupancy((CrafterBlockEntity) (Object) this, this.items);
         ContainerStateHelper.updateHasItems((CrafterBlockEntity) (Object) this, this.items);
     }
 }
@@ -1,6 +1,8 @@
 package dev.containerindicator.mixin;
 
 import dev.containerindicator.ContainerIndicator;
+import dev.containerindicator.FillLevels;
+import dev.containerindicator.SyncMode;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.CrafterBlock;
 import net.minecraft.world.level.block.state.BlockBehaviour;
@@ -20,11 +22,16 @@ public abstract class CrafterBlockMixin extends Block {
 
     @Inject(method = "createBlockStateDefinition", at = @At("TAIL"))
     private void containerindicator$addHasItems(StateDefinition.Builder<Block, BlockState> builder, CallbackInfo ci) {
+        if (!SyncMode.usesBlockStates()) return;
         builder.add(ContainerIndicator.HAS_ITEMS);
+        if (FillLevels.usesBlockStates()) {
+            builder.add(ContainerIndicator.FILL_LEVEL);
+        }
     }
 
     @Inject(method = "<init>", at = @At("RETURN"))
     private void containerindicator$setDefaultHasItems(BlockBehaviour.Properties properties, CallbackInfo ci) {
+        if (!SyncMode.usesBlockStates()) return;
         this.registerDefaultState(this.defaultBlockState().setValue(ContainerIndicator.HAS_ITEMS, false));
     }
 }
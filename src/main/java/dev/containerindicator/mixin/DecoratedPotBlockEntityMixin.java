@@ -1,7 +1,8 @@
 package dev.containerindicator.mixin;
 
-import dev.containerindicator.ContainerIndicator;
 import dev.containerindicator.ContainerStateHelper;
+import dev.containerindicator.IndicatorMetrics;
+import dev.containerindicator.IndicatorStates;
 import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.entity.BlockEntity;
@@ -17,26 +18,27 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 @Mixin(DecoratedPotBlockEntity.class)
 public abstract class DecoratedPotBlockEntityMixin {
 
-    private void containerindicator$tryUpdate() {
+    private void containerindicator$tryUpdate(IndicatorMetrics.Source source) {
         BlockEntity self = (BlockEntity) (Object) this;
         BlockState state = self.getBlockState();
-        if (state.hasProperty(ContainerIndicator.HAS_ITEMS)) {
+        if (IndicatorStates.showsItems(state)) {
+            IndicatorMetrics.update(source);
             ContainerStateHelper.updateHasItems(self, (Container) self);
         }
     }
 
     @Inject(method = "setTheItem", at = @At("TAIL"))
     private void containerindicator$onSetTheItem(ItemStack stack, CallbackInfo ci) {
-        containerindicator$tryUpdate();
+        containerindicator$tryUpdate(IndicatorMetrics.Source.SET_ITEM);
     }
 
     @Inject(method = "splitTheItem", at = @At("TAIL"))
     private void containerindicator$onSplitTheItem(int amount, CallbackInfoReturnable<ItemStack> cir) {
-        containerindicator$tryUpdate();
+        containerindicator$tryUpdate(IndicatorMetrics.Source.REMOVE_ITEM);
     }
 
     @Inject(method = "loadAdditional", at = @At("TAIL"))
     private void containerindicator$onLoadAdditional(ValueInput input, CallbackInfo ci) {
-        containerindicator$tryUpdate();
+        containerindicator$tryUpdate(IndicatorMetrics.Source.LOAD);
     }
 }
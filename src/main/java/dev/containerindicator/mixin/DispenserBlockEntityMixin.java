@@ -1,6 +1,7 @@
 package dev.containerindicator.mixin;
 
 import dev.containerindicator.ContainerStateHelper;
+import dev.containerindicator.IndicatorMetrics;
 import net.minecraft.core.NonNullList;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.entity.DispenserBlockEntity;
@@ -19,11 +20,15 @@ public abstract class DispenserBlockEntityMixin {
 
     @Inject(method = "setItems", at = @At("TAIL"))
     private void onSetItems(NonNullList<ItemStack> items, CallbackInfo ci) {
+        IndicatorMetrics.update(IndicatorMetrics.Source.SET_ITEM);
+        ContainerStateHelper.rebuildOccupancy((DispenserBlockEntity) (Object) this, this.items);
         ContainerStateHelper.updateHasItems((DispenserBlockEntity) (Object) this, this.items);
     }
 
     @Inject(method = "loadAdditional", at = @At("TAIL"))
     private void onLoadAdditional(ValueInput input, CallbackInfo ci) {
+        IndicatorMetrics.update(IndicatorMetrics.Source.LOAD);
+        ContainerStateHelper.rebuildOccupancy((DispenserBlockEntity) (Object) this, this.items);
         ContainerStateHelper.updateHasItems((DispenserBlockEntity) (Object) this, this.items);
     }
 }
@@ -1,9 +1,10 @@
 package dev.containerindicator.mixin;
 
 import dev.containerindicator.ContainerStateHelper;
+import dev.containerindicator.IndicatorMetrics;
+import dev.containerindicator.IndicatorUpdateQueue;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.NonNullList;
-import net.minecraft.world.Container;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.HopperBlockEntity;
@@ -11,34 +12,55 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.storage.ValueInput;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import java.util.function.BooleanSupplier;
+
 @Mixin(HopperBlockEntity.class)
 public abstract class HopperBlockEntityMixin {
 
     @Shadow
     private NonNullList<ItemStack> items;
 
+    @Unique
+    private void containerindicator$onSlotChanged(int slot, IndicatorMetrics.Source source) {
+        HopperBlockEntity self = (HopperBlockEntity) (Object) this;
+        ContainerStateHelper.trackSlot(self, this.items, slot);
+        IndicatorMetrics.update(source);
+        // A transfer touches a hopper several times per tick; evaluate it once at the end of the tick
+        if (!IndicatorUpdateQueue.enqueue(self)) {
+            ContainerStateHelper.updateHasItems(self, this.items);
+        }
+    }
+
     @Inject(method = "setItem", at = @At("TAIL"))
     private void containerindicator$onSetItem(int slot, ItemStack stack, CallbackInfo ci) {
-        ContainerStateHelper.updateHasItems((HopperBlockEntity) (Object) this, this.items);
+        containerindicator$onSlotChanged(slot, IndicatorMetrics.Source.SET_ITEM);
     }
 
     @Inject(method = "removeItem", at = @At("TAIL"))
     private void containerindicator$onRemoveItem(int slot, int amount, CallbackInfoReturnable<ItemStack> cir) {
-        ContainerStateHelper.updateHasItems((HopperBlockEntity) (Object) this, this.items);
+        containerindicator$onSlotChanged(slot, IndicatorMetrics.Source.REMOVE_ITEM);
+    }
+
+    // A hopper that moved items marks itself changed through the static setChanged, which the
+    // instance hook doesn't see
+    @Inject(method = "tryMoveItems",
+            at = @At(value = "INVOKE", target = "setChanged(Lnet/minecraft/world/level/Level;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;)V"))
+    private static void containerindicator$onMoveChanged(Level level, BlockPos pos, BlockState state,
+                                                         HopperBlockEntity blockEntity, BooleanSupplier validator,
+                                                         CallbackInfoReturnable<Boolean> cir) {
+        ContainerStateHelper.onContainerChanged(blockEntity);
     }
 
     @Inject(method = "loadAdditional", at = @At("TAIL"))
     private void containerindicator$onLoadAdditional(ValueInput input, CallbackInfo ci) {
+        IndicatorMetrics.update(IndicatorMetrics.Source.LOAD);
+        ContainerStateHelper.rebuildOccupancy((HopperBlockEntity) (Object) this, this.items);
         ContainerStateHelper.updateHasItems((HopperBlockEntity) (Object) this, this.items);
     }
-
-    @Inject(method = "pushItemsTick", at = @At("TAIL"))
-    private static void containerindicator$afterTick(Level level, BlockPos pos, BlockState state, HopperBlockEntity hopper, CallbackInfo ci) {
-        ContainerStateHelper.updateHasItems(hopper, (Container) hopper);
-    }
 }
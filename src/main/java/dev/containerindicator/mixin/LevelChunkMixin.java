@@ -0,0 +1,54 @@
+package dev.containerindicator.mixin;
+
+import dev.containerindicator.ChunkIndicatorIndex;
+import dev.containerindicator.IndicatorChunk;
+import it.unimi.dsi.fastutil.ints.Int2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(LevelChunk.class)
+public abstract class LevelChunkMixin implements IndicatorChunk {
+
+    @Unique
+    private IntOpenHashSet containerindicator$indicatorIndex;
+
+    @Unique
+    private Int2ByteOpenHashMap containerindicator$indicatorFlags;
+
+    @Override
+    public IntOpenHashSet containerindicator$getIndicatorIndex() {
+        return containerindicator$indicatorIndex;
+    }
+
+    @Override
+    public void containerindicator$setIndicatorIndex(IntOpenHashSet index) {
+        containerindicator$indicatorIndex = index;
+    }
+
+    @Override
+    public Int2ByteOpenHashMap containerindicator$getIndicatorFlags() {
+        return containerindicator$indicatorFlags;
+    }
+
+    @Override
+    public void containerindicator$setIndicatorFlags(Int2ByteOpenHashMap flags) {
+        containerindicator$indicatorFlags = flags;
+    }
+
+    @Inject(method = "setBlockEntity", at = @At("TAIL"))
+    private void containerindicator$onSetBlockEntity(BlockEntity blockEntity, CallbackInfo ci) {
+        ChunkIndicatorIndex.onBlockEntitySet((LevelChunk) (Object) this, blockEntity);
+    }
+
+    @Inject(method = "removeBlockEntity", at = @At("TAIL"))
+    private void containerindicator$onRemoveBlockEntity(BlockPos pos, CallbackInfo ci) {
+        ChunkIndicatorIndex.onBlockEntityRemoved((LevelChunk) (Object) this, pos);
+    }
+}